@@ -0,0 +1,49 @@
+package com.cine.social.chatservice.configuration;
+
+import com.cine.social.chatservice.property.ChatDeliveryProperties;
+import com.cine.social.chatservice.service.impl.ChatEventConsumerService;
+import com.cine.social.chatservice.service.impl.RoomSubscriptionRegistry;
+import com.cine.social.common.delivery.DeliveryCallback;
+import com.cine.social.common.delivery.DeliveryNode;
+import com.cine.social.common.delivery.DeliveryPartitionManager;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+public class ChatDeliveryConfig {
+
+    @Bean
+    public DeliveryNode deliveryNode() {
+        return new DeliveryNode();
+    }
+
+    // Each node consumes only the chat-delivery partition it leases and pushes to its own STOMP subscribers
+    @Bean
+    public DeliveryPartitionManager deliveryPartitionManager(MongoTemplate mongoTemplate,
+                                                             KafkaProperties kafkaProperties,
+                                                             ChatDeliveryProperties properties,
+                                                             DeliveryNode deliveryNode,
+                                                             RoomSubscriptionRegistry roomSubscriptionRegistry,
+                                                             ChatEventConsumerService chatEventConsumerService) {
+        return new DeliveryPartitionManager(mongoTemplate, kafkaProperties, properties, deliveryNode,
+                "chat-service-delivery", new DeliveryCallback() {
+            @Override
+            public void deliver(ConsumerRecord<String, String> record) {
+                chatEventConsumerService.deliver(record.value());
+            }
+
+            @Override
+            public void refresh() {
+                roomSubscriptionRegistry.refresh();
+            }
+
+            @Override
+            public void clear() {
+                roomSubscriptionRegistry.clear();
+            }
+        });
+    }
+}
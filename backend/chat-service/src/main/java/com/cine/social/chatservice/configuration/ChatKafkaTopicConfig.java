@@ -0,0 +1,18 @@
+package com.cine.social.chatservice.configuration;
+
+import com.cine.social.chatservice.property.ChatDeliveryProperties;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class ChatKafkaTopicConfig {
+
+    @Bean
+    public NewTopic chatDeliveryTopic(ChatDeliveryProperties properties) {
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(properties.getPartitions())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.cine.social.chatservice.configuration;
+
+import com.cine.social.chatservice.entity.UserProfile;
+import com.cine.social.chatservice.repository.UserProfileRepository;
+import com.cine.social.common.cache.ProfileCache;
+import com.cine.social.common.cache.ProfileCacheProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Configuration
+public class ProfileCacheConfig {
+
+    @Bean
+    public ProfileCache<UserProfile> userProfileCache(UserProfileRepository userProfileRepository,
+                                                      ProfileCacheProperties properties) {
+        return new ProfileCache<>(
+                "chat.user-profiles",
+                properties,
+                id -> userProfileRepository.findById(id).orElse(null),
+                ids -> userProfileRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(UserProfile::getId, Function.identity()))
+        );
+    }
+}
@@ -0,0 +1,45 @@
+package com.cine.social.chatservice.configuration;
+
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled STOMP destination parsing, accepts an optional prefix before the known suffixes.
+ */
+public final class StompDestinations {
+
+    public enum Kind { ROOM_TOPIC, ROOM_SEND, PRIVATE_SEND }
+
+    public record Destination(Kind kind, String id) {}
+
+    private static final Pattern ROOM_TOPIC = Pattern.compile("^(?:.*/)?topic/room/([^/]+)$");
+    private static final Pattern ROOM_SEND = Pattern.compile("^(?:.*/)?chat/room/([^/]+)$");
+    private static final Pattern PRIVATE_SEND = Pattern.compile("^(?:.*/)?chat/private/([^/]*)$");
+
+    private StompDestinations() {}
+
+    public static Destination parse(String destination) {
+        if (Objects.isNull(destination)) {
+            return null;
+        }
+        Matcher matcher = ROOM_TOPIC.matcher(destination);
+        if (matcher.matches()) {
+            return new Destination(Kind.ROOM_TOPIC, matcher.group(1));
+        }
+        matcher = ROOM_SEND.matcher(destination);
+        if (matcher.matches()) {
+            return new Destination(Kind.ROOM_SEND, matcher.group(1));
+        }
+        matcher = PRIVATE_SEND.matcher(destination);
+        if (matcher.matches()) {
+            return new Destination(Kind.PRIVATE_SEND, matcher.group(1));
+        }
+        return null;
+    }
+
+    public static String roomTopicId(String destination) {
+        Destination parsed = parse(destination);
+        return Objects.nonNull(parsed) && parsed.kind() == Kind.ROOM_TOPIC ? parsed.id() : null;
+    }
+}
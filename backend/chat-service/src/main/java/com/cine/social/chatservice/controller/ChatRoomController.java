@@ -7,11 +7,16 @@ import com.cine.social.chatservice.dto.response.ChatRoomResponseDetail;
 import com.cine.social.chatservice.service.ChatRoomService;
 import com.cine.social.chatservice.service.ChatService;
 import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.common.dto.response.PageResponse;
+import com.cine.social.common.utils.PageHelper;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/rooms")
@@ -37,6 +42,12 @@ public class ChatRoomController {
         return ApiResponse.success("Leave room successfully");
     }
 
+    @PatchMapping("/{id}/read")
+    public ApiResponse<String> markRoomRead(@PathVariable String id, @RequestParam(required = false) Long seq) {
+        chatRoomService.markRoomRead(id, seq);
+        return ApiResponse.success("Mark room as read successfully");
+    }
+
     @GetMapping
     public ApiResponse<List<ChatRoomResponse>> getUserChatRooms() {
         return ApiResponse.success(chatRoomService.getUserRooms());
@@ -51,8 +62,23 @@ public class ChatRoomController {
     public ApiResponse<PageResponse<List<ChatMessageResponse>>> getChatHistory(
             @PathVariable String roomId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "15") int size
+            @RequestParam(defaultValue = "15") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size
     ) {
         return ApiResponse.success(chatService.getChatHistory(roomId, page, size));
     }
+
+    // Delta sync: afterSeq returns newer messages ascending, otherwise older messages before beforeSeq descending.
+    // afterSeq pages stop before a seq that is not stored yet, hasNext is then true and nextCursor is where to retry
+    @GetMapping("/{roomId}/messages")
+    public ApiResponse<CursorResponse<List<ChatMessageResponse>>> getMessagesBySeq(
+            @PathVariable String roomId,
+            @RequestParam(required = false) Long afterSeq,
+            @RequestParam(required = false) Long beforeSeq,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size
+    ) {
+        if (Objects.nonNull(afterSeq)) {
+            return ApiResponse.success(chatService.getMessagesAfter(roomId, afterSeq, size));
+        }
+        return ApiResponse.success(chatService.getMessagesBefore(roomId, beforeSeq, size));
+    }
 }
@@ -4,6 +4,8 @@ import lombok.Data;
 
 @Data
 public class ChatMessageRequest {
+    // Client generated id echoed back in the ack so the sender can match it to its pending message
+    private String clientMessageId;
     private String content;
     private String contentImgUrl;
 }
@@ -0,0 +1,20 @@
+package com.cine.social.chatservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageAck {
+    private String clientMessageId;
+    private String messageId;
+    private String roomId;
+    private Date timestamp;
+    private boolean accepted;
+}
@@ -14,7 +14,9 @@ import java.util.Date;
 @AllArgsConstructor
 public class ChatMessageResponse {
     private String id;
+    private String clientMessageId;
     private String roomId;
+    private Long seq;
     private String senderId;
     private String content;
     private String contentImgUrl;
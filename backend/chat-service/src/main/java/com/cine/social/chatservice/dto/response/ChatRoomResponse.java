@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Date;
 import java.util.List;
 
 @Builder
@@ -16,4 +17,8 @@ public class ChatRoomResponse {
     private String chatName;
     private String type;
     private String imgUrl;
+    private Long lastMessageSeq;
+    private String lastMessagePreview;
+    private Date lastActivityAt;
+    private Long unreadCount;
 }
@@ -6,12 +6,16 @@ import lombok.Data;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
 @Document(collection = "chat_messages")
+// Messages stored before sequencing have no seq and are left out of the unique index
+@CompoundIndex(name = "room_seq", def = "{'roomId': 1, 'seq': 1}", unique = true,
+        partialFilter = "{'seq': {$exists: true}}")
 @Data
 @Builder
 public class ChatMessage {
@@ -21,7 +25,10 @@ public class ChatMessage {
     @Indexed
     private String roomId;
 
+    private Long seq;
+
     private String senderId;
+    private String clientMessageId;
     private String content;
     private String contentImgUrl;
     @CreatedDate
@@ -19,6 +19,7 @@ public class ChatRoom {
     private String chatName;
     private RoomType type;
     private String imgUrl;
+    @Indexed
     private List<String> memberIds;
 
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.cine.social.chatservice.entity;
+
+import com.cine.social.chatservice.constant.RoomType;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Per-user view of a room for the rooms list, kept up to date as rooms change and messages are persisted.
+ * Unread count is lastMessageSeq - lastReadSeq, so replays never double count.
+ */
+@Document(collection = "room_inboxes")
+@CompoundIndex(name = "user_activity", def = "{'userId': 1, 'lastActivityAt': -1}")
+@Data
+@Builder
+public class RoomInbox {
+    @Id
+    private String id;
+    private String userId;
+    private String roomId;
+
+    private String chatName;
+    private RoomType type;
+    private String imgUrl;
+
+    private long lastMessageSeq;
+    private String lastMessagePreview;
+    private Date lastActivityAt;
+    private long lastReadSeq;
+
+    public static String idOf(String userId, String roomId) {
+        return userId + ":" + roomId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.cine.social.chatservice.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One row per (room, node) pair while the node holds at least one local STOMP subscription to the room.
+ */
+@Document(collection = "room_subscriptions")
+@Data
+@Builder
+public class RoomSubscription {
+    @Id
+    private String id;
+
+    @Indexed
+    private String roomId;
+
+    private String nodeId;
+    private int partition;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+}
@@ -9,4 +9,5 @@ import org.mapstruct.Mapper;
 public interface ChatMessageMapper {
     ChatMessage toEntity(ChatMessageRequest request);
     ChatMessageResponse toResponse(ChatMessage entity);
+    ChatMessage toEntity(ChatMessageResponse response);
 }
@@ -3,6 +3,7 @@ package com.cine.social.chatservice.mapper;
 import com.cine.social.chatservice.dto.request.ChatRoomRequest;
 import com.cine.social.chatservice.dto.response.ChatRoomResponse;
 import com.cine.social.chatservice.entity.ChatRoom;
+import com.cine.social.chatservice.entity.RoomInbox;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -11,7 +12,18 @@ import java.util.List;
 
 @Mapper(componentModel = "spring")
 public abstract class ChatRoomMapper {
+    // Inbox fields only exist per member, a room on its own carries none of them
     @Mapping(target = "type", expression = "java(entity.getType().name())")
+    @Mapping(target = "lastMessageSeq", ignore = true)
+    @Mapping(target = "lastMessagePreview", ignore = true)
+    @Mapping(target = "lastActivityAt", ignore = true)
+    @Mapping(target = "unreadCount", ignore = true)
     public abstract ChatRoomResponse toResponse(ChatRoom entity);
     public abstract List<ChatRoomResponse> toListResponses(List<ChatRoom> entity);
+
+    @Mapping(target = "id", source = "roomId")
+    @Mapping(target = "type", expression = "java(java.util.Objects.nonNull(inbox.getType()) ? inbox.getType().name() : null)")
+    @Mapping(target = "unreadCount", expression = "java(Math.max(0L, inbox.getLastMessageSeq() - inbox.getLastReadSeq()))")
+    public abstract ChatRoomResponse toResponse(RoomInbox inbox);
+    public abstract List<ChatRoomResponse> toInboxResponses(List<RoomInbox> inboxes);
 }
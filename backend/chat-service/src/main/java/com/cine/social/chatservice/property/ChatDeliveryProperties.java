@@ -0,0 +1,22 @@
+package com.cine.social.chatservice.property;
+
+import com.cine.social.common.delivery.DeliveryPartitionProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.chat.delivery")
+public class ChatDeliveryProperties extends DeliveryPartitionProperties {
+    // How long the router trusts a room -> partitions lookup
+    private Duration routeCacheTtl = Duration.ofSeconds(1);
+
+    public ChatDeliveryProperties() {
+        setTopic("chat-delivery");
+    }
+}
@@ -3,6 +3,7 @@ package com.cine.social.chatservice.repository;
 import com.cine.social.chatservice.entity.ChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,5 +13,11 @@ import java.util.List;
 public interface ChatMessageRepository extends MongoRepository<ChatMessage, String> {
     Page<ChatMessage> findByRoomId(String roomId, Pageable pageable);
 
+    Slice<ChatMessage> findByRoomIdAndSeqGreaterThanOrderBySeqAsc(String roomId, long seq, Pageable pageable);
+
+    Slice<ChatMessage> findByRoomIdAndSeqLessThanOrderBySeqDesc(String roomId, long seq, Pageable pageable);
+
+    ChatMessage findFirstByRoomIdOrderByTimestampDesc(String roomId);
+
     void deleteByRoomId(String roomId);
 }
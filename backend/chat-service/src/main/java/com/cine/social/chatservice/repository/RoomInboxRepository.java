@@ -0,0 +1,10 @@
+package com.cine.social.chatservice.repository;
+
+import com.cine.social.chatservice.entity.RoomInbox;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface RoomInboxRepository extends MongoRepository<RoomInbox, String> {
+    List<RoomInbox> findByUserIdOrderByLastActivityAtDesc(String userId);
+}
@@ -0,0 +1,13 @@
+package com.cine.social.chatservice.repository;
+
+import com.cine.social.chatservice.entity.RoomSubscription;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RoomSubscriptionRepository extends MongoRepository<RoomSubscription, String> {
+    List<RoomSubscription> findByRoomIdAndExpiresAtAfter(String roomId, Date now);
+
+    void deleteByNodeId(String nodeId);
+}
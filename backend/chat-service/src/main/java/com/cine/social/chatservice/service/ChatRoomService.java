@@ -15,5 +15,7 @@ public interface ChatRoomService {
     ChatRoomResponseDetail getUserRoomDetail(String roomId);
 
     void leaveChatRoom(String id);
+
+    void markRoomRead(String roomId, Long seq);
 }
 
@@ -2,6 +2,7 @@ package com.cine.social.chatservice.service;
 
 import com.cine.social.chatservice.dto.request.ChatMessageRequest;
 import com.cine.social.chatservice.dto.response.ChatMessageResponse;
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.common.dto.response.PageResponse;
 
 import java.util.List;
@@ -10,6 +11,10 @@ public interface ChatService {
     void saveAndSend(String roomId, ChatMessageRequest request, String senderId);
     PageResponse<List<ChatMessageResponse>> getChatHistory(String roomId, int pageNo, int pageSize);
 
+    CursorResponse<List<ChatMessageResponse>> getMessagesAfter(String roomId, long afterSeq, int size);
+
+    CursorResponse<List<ChatMessageResponse>> getMessagesBefore(String roomId, Long beforeSeq, int size);
+
     void sendPrivateMessage(String recipientId, ChatMessageRequest request, String senderId);
 
     void sendGroupMessage(String roomId, ChatMessageRequest request, String senderId);
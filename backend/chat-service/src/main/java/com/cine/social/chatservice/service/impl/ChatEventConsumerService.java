@@ -1,27 +1,85 @@
 package com.cine.social.chatservice.service.impl;
 
 import com.cine.social.chatservice.dto.response.ChatMessageResponse;
+import com.cine.social.chatservice.entity.RoomSubscription;
+import com.cine.social.chatservice.property.ChatDeliveryProperties;
+import com.cine.social.chatservice.repository.RoomSubscriptionRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Routes chat messages to the delivery partitions of the nodes holding subscribers for the room, and delivers
+ * messages arriving on this node's own partition to local STOMP subscribers.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ChatEventConsumerService {
 
     private final SimpMessagingTemplate messagingTemplate;
     private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final RoomSubscriptionRepository roomSubscriptionRepository;
+    private final RoomSubscriptionRegistry roomSubscriptionRegistry;
+    private final ChatDeliveryProperties properties;
+    private final Cache<String, Set<Integer>> routes;
+
+    public ChatEventConsumerService(SimpMessagingTemplate messagingTemplate,
+                                    ObjectMapper objectMapper,
+                                    KafkaTemplate<String, String> kafkaTemplate,
+                                    RoomSubscriptionRepository roomSubscriptionRepository,
+                                    RoomSubscriptionRegistry roomSubscriptionRegistry,
+                                    ChatDeliveryProperties properties) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.kafkaTemplate = kafkaTemplate;
+        this.roomSubscriptionRepository = roomSubscriptionRepository;
+        this.roomSubscriptionRegistry = roomSubscriptionRegistry;
+        this.properties = properties;
+        this.routes = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(properties.getRouteCacheTtl())
+                .build();
+    }
+
+    /**
+     * Sends a stored message to the delivery partitions of the nodes holding subscribers for its room. Called by the
+     * persistence consumer, so messages reach clients with their seq and only once they can be synced.
+     */
+    public void route(ChatMessageResponse response) {
+        try {
+            String roomId = response.getRoomId();
+            Set<Integer> partitions = routes.get(roomId, id -> roomSubscriptionRepository
+                    .findByRoomIdAndExpiresAtAfter(id, new Date()).stream()
+                    .map(RoomSubscription::getPartition)
+                    .collect(Collectors.toSet()));
+            if (partitions.isEmpty()) {
+                return;
+            }
+
+            String message = objectMapper.writeValueAsString(response);
+            for (Integer partition : partitions) {
+                kafkaTemplate.send(properties.getTopic(), partition, roomId, message);
+            }
+        } catch (Exception e) {
+            log.error("Error routing chat message", e);
+        }
+    }
 
-    @KafkaListener(topics = "chat-messages-topic",
-            groupId = "#{'chat-service-broadcast-' + T(java.util.UUID).randomUUID().toString()}")
-    public void consumeChatMessage(String message) {
+    public void deliver(String message) {
         try {
-            log.info("Consuming message from Kafka: {}", message);
             ChatMessageResponse response = objectMapper.readValue(message, ChatMessageResponse.class);
+            if (!roomSubscriptionRegistry.hasLocalSubscribers(response.getRoomId())) {
+                return;
+            }
             String destination = "/topic/room/" + response.getRoomId();
             messagingTemplate.convertAndSend(destination, response);
 
@@ -29,4 +87,4 @@ public class ChatEventConsumerService {
             log.error("Error consuming chat message", e);
         }
     }
-}
\ No newline at end of file
+}
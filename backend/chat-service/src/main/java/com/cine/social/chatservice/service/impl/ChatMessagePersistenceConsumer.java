@@ -0,0 +1,81 @@
+package com.cine.social.chatservice.service.impl;
+
+import com.cine.social.chatservice.dto.response.ChatMessageResponse;
+import com.cine.social.chatservice.entity.ChatMessage;
+import com.cine.social.chatservice.mapper.ChatMessageMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists chat messages from the Kafka log with unordered bulk inserts. Ids are assigned before publishing,
+ * so redelivered messages hit the _id unique index and are skipped. Sequence numbers are assigned here, off the send
+ * path, and a message is routed to live subscribers once it is stored with its seq.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessagePersistenceConsumer {
+
+    private final static int DUPLICATE_KEY = 11000;
+    private final static String ROOM_SEQ_INDEX = "room_seq";
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatMessageMapper chatMessageMapper;
+    private final ObjectMapper objectMapper;
+    private final RoomInboxWriter roomInboxWriter;
+    private final RoomSequencer roomSequencer;
+    private final ChatEventConsumerService chatEventConsumerService;
+
+    @KafkaListener(topics = "chat-messages-topic",
+            groupId = "chat-service-persistence",
+            containerFactory = "chatPersistenceListenerContainerFactory")
+    public void persistMessages(List<String> messages) {
+        List<ChatMessageResponse> responses = new ArrayList<>(messages.size());
+        List<ChatMessage> batch = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            try {
+                ChatMessageResponse response = objectMapper.readValue(message, ChatMessageResponse.class);
+                responses.add(response);
+                batch.add(chatMessageMapper.toEntity(response));
+            } catch (Exception e) {
+                log.error("Skipping malformed chat message {}", message, e);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        roomSequencer.assign(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            responses.get(i).setSeq(batch.get(i).getSeq());
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Only a repeated _id means already stored, a taken room seq means the counters are off
+            List<BulkWriteError> failures = e.getErrors().stream()
+                    .filter(error -> error.getCode() != DUPLICATE_KEY || error.getMessage().contains(ROOM_SEQ_INDEX))
+                    .toList();
+            if (!failures.isEmpty()) {
+                roomSequencer.reset();
+                throw e;
+            }
+            log.debug("Skipped {} already persisted chat messages", e.getErrors().size());
+        }
+        roomInboxWriter.applyMessages(responses);
+        responses.forEach(chatEventConsumerService::route);
+    }
+}
@@ -8,15 +8,18 @@ import com.cine.social.chatservice.dto.response.ChatRoomResponseDetail;
 import com.cine.social.chatservice.dto.response.UserResponse;
 import com.cine.social.chatservice.entity.ChatMessage;
 import com.cine.social.chatservice.entity.ChatRoom;
+import com.cine.social.chatservice.entity.RoomInbox;
 import com.cine.social.chatservice.entity.UserProfile;
 import com.cine.social.chatservice.exception.ChatErrorCode;
 import com.cine.social.chatservice.mapper.ChatRoomMapper;
 import com.cine.social.chatservice.mapper.UserProfileMapper;
 import com.cine.social.chatservice.repository.ChatMessageRepository;
 import com.cine.social.chatservice.repository.ChatRoomRepository;
+import com.cine.social.chatservice.repository.RoomInboxRepository;
 import com.cine.social.chatservice.repository.UserProfileRepository;
 import com.cine.social.chatservice.service.ChatRoomService;
 import com.cine.social.chatservice.service.UserProfileService;
+import com.cine.social.common.cache.ProfileCache;
 import com.cine.social.common.exception.AppException;
 import com.cine.social.common.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +42,10 @@ public class ChatRoomServiceImpl implements ChatRoomService {
     private final UserProfileRepository userProfileRepository;
     private final UserProfileService userProfileService;
     private final ChatMessageRepository chatMessageRepository;
+    private final RoomMembershipCache roomMembershipCache;
+    private final RoomInboxWriter roomInboxWriter;
+    private final RoomInboxRepository roomInboxRepository;
+    private final ProfileCache<UserProfile> userProfileCache;
 
 
     @Override
@@ -59,36 +66,43 @@ public class ChatRoomServiceImpl implements ChatRoomService {
                 .memberIds(members)
                 .build();
         ChatRoom savedEntity = chatRoomRepository.save(chatRoomResponse);
+        roomMembershipCache.onRoomChanged(savedEntity);
+        roomInboxWriter.syncRoom(savedEntity, List.of());
         return chatRoomMapper.toResponse(savedEntity);
     }
 
     @Override
     public List<ChatRoomResponse> getUserRooms() {
         String currentUserId = SecurityUtils.getCurrentUserId();
-        List<ChatRoom> rooms = chatRoomRepository.findByMemberIdsContaining(currentUserId);
-        Set<String> profileIds = rooms.stream()
-                .flatMap(room -> room.getMemberIds().stream())
+        roomInboxWriter.backfillIfNeeded(currentUserId);
+        List<RoomInbox> inboxes = roomInboxRepository.findByUserIdOrderByLastActivityAtDesc(currentUserId);
+
+        // Membership lives on the room, only rooms named after their members need it
+        List<String> unnamedRoomIds = inboxes.stream()
+                .filter(inbox -> Strings.isBlank(inbox.getChatName()))
+                .map(RoomInbox::getRoomId)
+                .toList();
+        Map<String, List<String>> unnamedRoomMembers = unnamedRoomIds.isEmpty()
+                ? Map.of()
+                : chatRoomRepository.findAllById(unnamedRoomIds).stream()
+                        .filter(room -> Objects.nonNull(room.getMemberIds()))
+                        .collect(Collectors.toMap(
+                                ChatRoom::getId,
+                                room -> room.getMemberIds().stream().filter(id -> !id.equals(currentUserId)).limit(4).toList(),
+                                (a, b) -> a));
+        Set<String> profileIds = unnamedRoomMembers.values().stream()
+                .flatMap(List::stream)
                 .collect(Collectors.toSet());
-        List<UserProfile> profiles = userProfileRepository.findAllById(profileIds);
-        Map<String, UserProfile> lookupMapProfile = profiles.stream()
-                .collect(Collectors.toMap(UserProfile::getId, Function.identity(), (p1, p2) -> p1));
-
-        Map<String, String> roomNames = rooms.stream().filter(chatRoom -> Strings.isBlank(chatRoom.getChatName()))
-                .collect(Collectors.toMap(
-                        ChatRoom::getId,
-                        chatRoom -> {
-                            List<String> ids = chatRoom.getMemberIds().stream().filter(id -> !id.equals(currentUserId)).limit(4).toList();
-                            List<String> names = ids.stream().filter(id -> Objects.nonNull(lookupMapProfile.get(id)))
-                                    .map(id -> lookupMapProfile.get(id).getFirstName() + " " + lookupMapProfile.get(id).getLastName()).toList();
-                            return String.join(",", names);
-                        }
-                ));
-
-
-        var response = chatRoomMapper.toListResponses(rooms);
-        response.stream().forEach(rsp -> {
-            if(Strings.isBlank(rsp.getChatName())){
-                rsp.setChatName(roomNames.get(rsp.getId()));
+        Map<String, UserProfile> lookupMapProfile = userProfileCache.getAll(profileIds);
+
+        var response = chatRoomMapper.toInboxResponses(inboxes);
+        response.forEach(rsp -> {
+            if(Strings.isBlank(rsp.getChatName()) && unnamedRoomMembers.containsKey(rsp.getId())){
+                List<String> names = unnamedRoomMembers.get(rsp.getId()).stream()
+                        .filter(id -> Objects.nonNull(lookupMapProfile.get(id)))
+                        .map(id -> lookupMapProfile.get(id).getFirstName() + " " + lookupMapProfile.get(id).getLastName())
+                        .toList();
+                rsp.setChatName(String.join(",", names));
             }
         });
 
@@ -141,7 +155,9 @@ public class ChatRoomServiceImpl implements ChatRoomService {
             throw new AppException(ChatErrorCode.UNAUTHORIZED);
         }
         chatRoom.getMemberIds().remove(currentUserId);
-        chatRoomRepository.save(chatRoom);
+        ChatRoom saved = chatRoomRepository.save(chatRoom);
+        roomMembershipCache.onRoomChanged(saved);
+        roomInboxWriter.syncRoom(saved, List.of(currentUserId));
     }
 
     @Override
@@ -156,12 +172,31 @@ public class ChatRoomServiceImpl implements ChatRoomService {
         }
 
         List<String> newMemberIds = new ArrayList<>(request.getMemberIds());
+        List<String> removedMemberIds = chatRoom.getMemberIds().stream()
+                .filter(memberId -> !newMemberIds.contains(memberId))
+                .toList();
         chatRoom.setMemberIds(newMemberIds);
 
         ChatRoom saved = chatRoomRepository.save(chatRoom);
+        roomMembershipCache.onRoomChanged(saved);
+        roomInboxWriter.syncRoom(saved, removedMemberIds);
         return chatRoomMapper.toResponse(saved);
     }
 
+    @Override
+    public void markRoomRead(String roomId, Long seq) {
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        if (!roomMembershipCache.isMember(roomId, currentUserId)) {
+            throw new AppException(ChatErrorCode.UNAUTHORIZED);
+        }
+        long readSeq = Objects.nonNull(seq)
+                ? seq
+                : roomInboxRepository.findById(RoomInbox.idOf(currentUserId, roomId))
+                        .map(RoomInbox::getLastMessageSeq)
+                        .orElse(0L);
+        roomInboxWriter.markRead(currentUserId, roomId, readSeq);
+    }
+
     private ChatRoom findChatRoomByIdOrThrowException(String id){
         return chatRoomRepository.findById(id).orElseThrow(
                 () -> new AppException(ChatErrorCode.CHAT_ROOM_NOT_FOUND)
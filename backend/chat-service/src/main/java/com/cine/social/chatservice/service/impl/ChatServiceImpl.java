@@ -1,6 +1,7 @@
 package com.cine.social.chatservice.service.impl;
 
 import com.cine.social.chatservice.constant.RoomType;
+import com.cine.social.chatservice.dto.response.ChatMessageAck;
 import com.cine.social.chatservice.dto.response.ChatMessageResponse;
 import com.cine.social.chatservice.entity.UserProfile;
 import com.cine.social.chatservice.exception.ChatErrorCode;
@@ -13,6 +14,8 @@ import com.cine.social.chatservice.repository.ChatRoomRepository;
 import com.cine.social.chatservice.repository.UserProfileRepository;
 import com.cine.social.chatservice.service.ChatService;
 import com.cine.social.chatservice.service.UserProfileService;
+import com.cine.social.common.cache.ProfileCache;
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.common.dto.response.PageResponse;
 import com.cine.social.common.exception.AppException;
 import com.cine.social.common.utils.PageHelper;
@@ -20,13 +23,21 @@ import com.cine.social.common.utils.SecurityUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.bson.types.ObjectId;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -43,19 +54,28 @@ public class ChatServiceImpl implements ChatService {
     private final ChatMessageMapper chatMessageMapper;
     private final UserProfileRepository userProfileRepository;
     private final UserProfileService userProfileService;
+    private final ProfileCache<UserProfile> userProfileCache;
+    private final RoomMembershipCache roomMembershipCache;
+    private final RoomInboxWriter roomInboxWriter;
+    private final SimpMessagingTemplate messagingTemplate;
     private final static String CHAT_MESSAGE_TOPIC = "chat-messages-topic";
+    private final static String ACK_DESTINATION = "/queue/acks";
+
+    // Longer than a persistence batch, a seq still missing after this is not going to be stored
+    @Value("${app.chat.persistence.hole-grace:30s}")
+    private Duration holeGrace;
 
     @Override
     public void saveAndSend(String roomId, ChatMessageRequest request, String senderId) {
         userProfileService.ensureUserProfilesExists(List.of(senderId));
 
         try {
-            ChatRoom chatRoomResponse = chatRoomRepository.findById(roomId)
+            RoomMembershipCache.RoomMembership room = roomMembershipCache.get(roomId)
                     .orElseThrow(() -> new AppException(ChatErrorCode.INVALID_MESSAGE));
 
-            ChatMessage savedMsg = saveMessageToDb(request, senderId, chatRoomResponse.getId());
+            ChatMessage message = buildMessage(request, senderId, room.roomId());
 
-            UserProfile senderProfile = userProfileRepository.findById(senderId).orElseGet(
+            UserProfile senderProfile = Optional.ofNullable(userProfileCache.get(senderId)).orElseGet(
                     () -> UserProfile.builder()
                                     .id(senderId)
                                     .firstName("Social")
@@ -63,9 +83,11 @@ public class ChatServiceImpl implements ChatService {
                                     .imageUrl("")
                                     .build()
             );
-            ChatMessageResponse response = buildChatResponse(savedMsg, senderProfile, chatRoomResponse);
+            ChatMessageResponse response = buildChatResponse(message, senderProfile, room.memberIds());
 
-            sendToKafka(chatRoomResponse.getId(), response);
+            // The Kafka log is the write-ahead log, ChatMessagePersistenceConsumer stores it in batches
+            sendToKafka(room.roomId(), response)
+                    .whenComplete((result, ex) -> sendAck(senderId, message, Objects.isNull(ex)));
         } catch (AppException e) {
             throw e;
         } catch (Exception e) {
@@ -81,12 +103,9 @@ public class ChatServiceImpl implements ChatService {
         String currentUserId = SecurityUtils.getCurrentUserId();
         Pageable pageable = PageHelper.pageEngine(pageNo, pageSize, "timestamp:desc");
         Page<ChatMessage> page = chatMessageRepository.findByRoomId(roomId, pageable);
-        Optional<ChatRoom> optional = chatRoomRepository.findById(roomId);
-        if(optional.isPresent()) {
-            boolean isMember = optional.get().getMemberIds().stream().anyMatch(id -> id.equals(currentUserId));
-            if (!isMember) {
-                throw new AppException(ChatErrorCode.UNAUTHORIZED);
-            }
+        Optional<RoomMembershipCache.RoomMembership> room = roomMembershipCache.get(roomId);
+        if(room.isPresent() && !room.get().isMember(currentUserId)) {
+            throw new AppException(ChatErrorCode.UNAUTHORIZED);
         }
 
         Map<String, UserProfile> lookupMap = getUserProfileMap(page.getContent());
@@ -95,16 +114,86 @@ public class ChatServiceImpl implements ChatService {
         return PageResponse.<List<ChatMessageResponse>>builder()
                 .totalPage(page.getTotalPages())
                 .totalElement(page.getTotalElements())
+                .hasNext(page.hasNext())
                 .pageNo(pageNo)
                 .pageSize(pageSize)
                 .items(items)
                 .build();
     }
 
+    @Override
+    public CursorResponse<List<ChatMessageResponse>> getMessagesAfter(String roomId, long afterSeq, int size) {
+        checkRoomMembership(roomId);
+        Slice<ChatMessage> slice = chatMessageRepository.findByRoomIdAndSeqGreaterThanOrderBySeqAsc(
+                roomId, afterSeq, PageRequest.of(0, size));
+        List<ChatMessage> messages = slice.getContent();
+        int ready = readyPrefix(messages, afterSeq);
+        if (ready == messages.size()) {
+            return buildSeqCursorResponse(slice, size);
+        }
+        // Held back behind a pending seq, the client polls again from the cursor instead of skipping it for good
+        List<ChatMessage> delivered = messages.subList(0, ready);
+        String cursor = String.valueOf(delivered.isEmpty() ? afterSeq : delivered.get(ready - 1).getSeq());
+        return buildSeqCursorResponse(delivered, true, cursor, size);
+    }
+
+    /**
+     * Messages are persisted from Kafka in batches, so a higher seq can be stored before a lower one. A missing seq is
+     * treated as pending and stops the page, unless the message after it is older than holeGrace, by then the
+     * missing one is not going to be stored and the hole is permanent.
+     */
+    private int readyPrefix(List<ChatMessage> messages, long afterSeq) {
+        long expected = afterSeq + 1;
+        long settledBefore = System.currentTimeMillis() - holeGrace.toMillis();
+        for (int i = 0; i < messages.size(); i++) {
+            ChatMessage message = messages.get(i);
+            if (message.getSeq() != expected && message.getTimestamp().getTime() > settledBefore) {
+                return i;
+            }
+            expected = message.getSeq() + 1;
+        }
+        return messages.size();
+    }
+
+    @Override
+    public CursorResponse<List<ChatMessageResponse>> getMessagesBefore(String roomId, Long beforeSeq, int size) {
+        checkRoomMembership(roomId);
+        Slice<ChatMessage> slice = chatMessageRepository.findByRoomIdAndSeqLessThanOrderBySeqDesc(
+                roomId, Objects.nonNull(beforeSeq) ? beforeSeq : Long.MAX_VALUE, PageRequest.of(0, size));
+        return buildSeqCursorResponse(slice, size);
+    }
+
+    private void checkRoomMembership(String roomId) {
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        if (!roomMembershipCache.isMember(roomId, currentUserId)) {
+            throw new AppException(ChatErrorCode.UNAUTHORIZED);
+        }
+    }
+
+    // The cursor is the seq of the last message in the slice, pass it back as afterSeq/beforeSeq
+    private CursorResponse<List<ChatMessageResponse>> buildSeqCursorResponse(Slice<ChatMessage> slice, int size) {
+        List<ChatMessage> messages = slice.getContent();
+        String nextCursor = slice.hasNext() && !messages.isEmpty()
+                ? String.valueOf(messages.get(messages.size() - 1).getSeq())
+                : null;
+        return buildSeqCursorResponse(messages, slice.hasNext(), nextCursor, size);
+    }
+
+    private CursorResponse<List<ChatMessageResponse>> buildSeqCursorResponse(List<ChatMessage> messages, boolean hasNext,
+                                                                             String nextCursor, int size) {
+        List<ChatMessageResponse> items = mapMessagesToResponses(messages, getUserProfileMap(messages));
+        return CursorResponse.<List<ChatMessageResponse>>builder()
+                .pageSize(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .items(items)
+                .build();
+    }
+
     @Override
     public void sendPrivateMessage(String recipientId, ChatMessageRequest request, String senderId) {
-        ChatRoom chatRoom = resolvePrivateChatRoom(recipientId, senderId);
-        saveAndSend(chatRoom.getId(), request, senderId);
+        String roomId = resolvePrivateChatRoom(recipientId, senderId);
+        saveAndSend(roomId, request, senderId);
     }
 
     @Override
@@ -114,29 +203,45 @@ public class ChatServiceImpl implements ChatService {
     }
 
 
-    private ChatMessage saveMessageToDb(ChatMessageRequest request, String senderId, String roomId) {
+    private ChatMessage buildMessage(ChatMessageRequest request, String senderId, String roomId) {
         ChatMessage chatMessage = chatMessageMapper.toEntity(request);
+        chatMessage.setId(new ObjectId().toHexString());
         chatMessage.setSenderId(senderId);
         chatMessage.setRoomId(roomId);
-        return chatMessageRepository.save(chatMessage);
+        chatMessage.setTimestamp(new Date());
+        return chatMessage;
+    }
+
+    private void sendAck(String senderId, ChatMessage message, boolean accepted) {
+        if (!accepted) {
+            log.error("Failed to publish message {} for senderId: {}", message.getId(), senderId);
+        }
+        ChatMessageAck ack = ChatMessageAck.builder()
+                .clientMessageId(message.getClientMessageId())
+                .messageId(message.getId())
+                .roomId(message.getRoomId())
+                .timestamp(message.getTimestamp())
+                .accepted(accepted)
+                .build();
+        messagingTemplate.convertAndSendToUser(senderId, ACK_DESTINATION, ack);
     }
 
 
-    private ChatMessageResponse buildChatResponse(ChatMessage message, UserProfile senderProfile, ChatRoom chatRoomResponse) {
+    private ChatMessageResponse buildChatResponse(ChatMessage message, UserProfile senderProfile, List<String> memberIds) {
         ChatMessageResponse response = chatMessageMapper.toResponse(message);
         enrichResponseWithProfile(response, senderProfile);
 
-        List<String> recipientIds = chatRoomResponse.getMemberIds().stream()
+        List<String> recipientIds = memberIds.stream()
                 .filter(id -> !id.equals(message.getSenderId()))
                 .toList();
         response.setRecipientIds(recipientIds);
         return response;
     }
 
-    private void sendToKafka(String roomId, ChatMessageResponse response) throws Exception {
+    private CompletableFuture<SendResult<String, String>> sendToKafka(String roomId, ChatMessageResponse response) throws Exception {
         String jsonMessage = objectMapper.writeValueAsString(response);
-        kafkaTemplate.send(CHAT_MESSAGE_TOPIC, roomId, jsonMessage);
         log.debug("Message sent to topic {} with roomId {}", CHAT_MESSAGE_TOPIC, roomId);
+        return kafkaTemplate.send(CHAT_MESSAGE_TOPIC, roomId, jsonMessage);
     }
 
     private Map<String, UserProfile> getUserProfileMap(List<ChatMessage> messages) {
@@ -165,13 +270,15 @@ public class ChatServiceImpl implements ChatService {
         }
     }
 
-    private ChatRoom resolvePrivateChatRoom(String senderId, String recipientId) {
+    private String resolvePrivateChatRoom(String senderId, String recipientId) {
         List<String> sortedIds = Arrays.asList(senderId, recipientId);
         Collections.sort(sortedIds);
         String uniqueRoomId = String.join("_", sortedIds);
 
-        return chatRoomRepository.findById(uniqueRoomId)
-                .orElseGet(() -> createPrivateRoom(uniqueRoomId, senderId, recipientId));
+        if (roomMembershipCache.get(uniqueRoomId).isEmpty()) {
+            createPrivateRoom(uniqueRoomId, senderId, recipientId);
+        }
+        return uniqueRoomId;
     }
 
     private ChatRoom createPrivateRoom(String id, String senderId, String recipientId) {
@@ -180,6 +287,9 @@ public class ChatServiceImpl implements ChatService {
                 .type(RoomType.PRIVATE)
                 .memberIds(Arrays.asList(senderId, recipientId))
                 .build();
-        return chatRoomRepository.save(newRoom);
+        ChatRoom saved = chatRoomRepository.save(newRoom);
+        roomMembershipCache.onRoomChanged(saved);
+        roomInboxWriter.syncRoom(saved, List.of());
+        return saved;
     }
 }
\ No newline at end of file
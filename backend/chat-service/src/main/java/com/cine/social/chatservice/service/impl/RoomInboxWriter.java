@@ -0,0 +1,175 @@
+package com.cine.social.chatservice.service.impl;
+
+import com.cine.social.chatservice.dto.response.ChatMessageResponse;
+import com.cine.social.chatservice.entity.ChatMessage;
+import com.cine.social.chatservice.entity.ChatRoom;
+import com.cine.social.chatservice.entity.RoomInbox;
+import com.cine.social.chatservice.repository.ChatMessageRepository;
+import com.cine.social.chatservice.repository.ChatRoomRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains room_inboxes. All message updates use $max so redelivered batches are idempotent. Membership stays on the
+ * room, an inbox only holds its member's view: display fields written when the room changes, activity and unread
+ * fields written per message batch.
+ */
+@Component
+@Slf4j
+public class RoomInboxWriter {
+
+    private final static String BACKFILL_COLLECTION = "room_inbox_backfills";
+    private final static int PREVIEW_LENGTH = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final RoomMembershipCache roomMembershipCache;
+    // Users whose legacy rooms are known to be backfilled, saves the marker lookup on every rooms list
+    private final Cache<String, Boolean> backfilledUsers = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public RoomInboxWriter(MongoTemplate mongoTemplate,
+                           ChatRoomRepository chatRoomRepository,
+                           ChatMessageRepository chatMessageRepository,
+                           RoomMembershipCache roomMembershipCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.roomMembershipCache = roomMembershipCache;
+    }
+
+    public void syncRoom(ChatRoom room, Collection<String> removedMemberIds) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomInbox.class);
+        for (String memberId : room.getMemberIds()) {
+            Update update = roomFields(room.getChatName(), room.getType(), room.getImgUrl())
+                    .setOnInsert("userId", memberId)
+                    .setOnInsert("roomId", room.getId())
+                    .setOnInsert("lastActivityAt", new Date());
+            bulk.upsert(byId(memberId, room.getId()), update);
+        }
+        if (Objects.nonNull(removedMemberIds) && !removedMemberIds.isEmpty()) {
+            bulk.remove(Query.query(Criteria.where("_id").in(
+                    removedMemberIds.stream().map(memberId -> RoomInbox.idOf(memberId, room.getId())).toList())));
+        }
+        bulk.execute();
+    }
+
+    public void applyMessages(List<ChatMessageResponse> messages) {
+        Map<String, ChatMessageResponse> latestByRoom = new HashMap<>();
+        Map<String, Long> readBySender = new HashMap<>();
+        for (ChatMessageResponse message : messages) {
+            if (Objects.isNull(message.getSeq())) {
+                continue;
+            }
+            latestByRoom.merge(message.getRoomId(), message, (a, b) -> a.getSeq() >= b.getSeq() ? a : b);
+            readBySender.merge(RoomInbox.idOf(message.getSenderId(), message.getRoomId()), message.getSeq(), Math::max);
+        }
+        if (latestByRoom.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, RoomInbox.class);
+        for (ChatMessageResponse latest : latestByRoom.values()) {
+            RoomMembershipCache.RoomMembership room = roomMembershipCache.get(latest.getRoomId()).orElse(null);
+            if (Objects.isNull(room)) {
+                continue;
+            }
+            for (String memberId : room.memberIds()) {
+                // Display fields are kept by syncRoom, a batch only fills them in for an inbox it creates
+                Update update = new Update()
+                        .max("lastMessageSeq", latest.getSeq())
+                        .max("lastActivityAt", latest.getTimestamp())
+                        .setOnInsert("userId", memberId)
+                        .setOnInsert("roomId", room.roomId())
+                        .setOnInsert("chatName", room.chatName())
+                        .setOnInsert("type", room.type())
+                        .setOnInsert("imgUrl", room.imgUrl());
+                bulk.upsert(byId(memberId, room.roomId()), update);
+                // Preview only moves with the newest message
+                bulk.updateOne(Query.query(Criteria.where("_id").is(RoomInbox.idOf(memberId, room.roomId()))
+                                .and("lastMessageSeq").is(latest.getSeq())),
+                        Update.update("lastMessagePreview", preview(latest.getContent(), latest.getContentImgUrl())));
+            }
+        }
+        readBySender.forEach((id, seq) -> bulk.updateOne(Query.query(Criteria.where("_id").is(id)), new Update().max("lastReadSeq", seq)));
+        bulk.execute();
+    }
+
+    public void markRead(String userId, String roomId, long seq) {
+        mongoTemplate.updateFirst(byId(userId, roomId), new Update().max("lastReadSeq", seq), RoomInbox.class);
+    }
+
+    /**
+     * Rooms that had no activity since inboxes were introduced have no entry yet, create them once per user.
+     */
+    public void backfillIfNeeded(String userId) {
+        if (Objects.nonNull(backfilledUsers.getIfPresent(userId))) {
+            return;
+        }
+        if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(userId)), BACKFILL_COLLECTION)) {
+            List<ChatRoom> rooms = chatRoomRepository.findByMemberIdsContaining(userId);
+            if (!rooms.isEmpty()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomInbox.class);
+                for (ChatRoom room : rooms) {
+                    ChatMessage last = chatMessageRepository.findFirstByRoomIdOrderByTimestampDesc(room.getId());
+                    Update update = roomFields(room.getChatName(), room.getType(), room.getImgUrl())
+                            .setOnInsert("userId", userId)
+                            .setOnInsert("roomId", room.getId());
+                    if (Objects.nonNull(last)) {
+                        update.setOnInsert("lastActivityAt", last.getTimestamp())
+                                .setOnInsert("lastMessagePreview", preview(last.getContent(), last.getContentImgUrl()))
+                                .setOnInsert("lastMessageSeq", Objects.nonNull(last.getSeq()) ? last.getSeq() : 0L)
+                                .setOnInsert("lastReadSeq", Objects.nonNull(last.getSeq()) ? last.getSeq() : 0L);
+                    } else {
+                        update.setOnInsert("lastActivityAt", new Date(0));
+                    }
+                    bulk.upsert(byId(userId, room.getId()), update);
+                }
+                bulk.execute();
+                log.info("Backfilled {} inbox entries for user {}", rooms.size(), userId);
+            }
+            mongoTemplate.save(new Document("_id", userId), BACKFILL_COLLECTION);
+        }
+        backfilledUsers.put(userId, Boolean.TRUE);
+    }
+
+    private Update roomFields(String chatName, Object type, String imgUrl) {
+        return new Update()
+                .set("chatName", chatName)
+                .set("type", type)
+                .set("imgUrl", imgUrl)
+                // Inboxes written before membership moved back to the room still carry a copy
+                .unset("memberIds");
+    }
+
+    private Query byId(String userId, String roomId) {
+        return Query.query(Criteria.where("_id").is(RoomInbox.idOf(userId, roomId)));
+    }
+
+    private String preview(String content, String contentImgUrl) {
+        if (StringUtils.hasText(content)) {
+            return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+        }
+        return StringUtils.hasText(contentImgUrl) ? "[image]" : "";
+    }
+}
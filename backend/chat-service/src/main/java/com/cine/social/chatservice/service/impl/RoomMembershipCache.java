@@ -0,0 +1,81 @@
+package com.cine.social.chatservice.service.impl;
+
+import com.cine.social.chatservice.constant.RoomType;
+import com.cine.social.chatservice.entity.ChatRoom;
+import com.cine.social.chatservice.repository.ChatRoomRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Per-node cache of room membership for the STOMP hot path. Loaded lazily from chat_rooms, missing rooms are not
+ * cached. Membership changes are written through locally and broadcast so the other nodes drop their copy.
+ */
+@Component
+@Slf4j
+public class RoomMembershipCache {
+
+    public final static String ROOM_MEMBERSHIP_TOPIC = "chat-room-membership-changed";
+
+    public record RoomMembership(String roomId, RoomType type, String chatName, String imgUrl,
+                                 List<String> memberIds, Set<String> memberSet) {
+        public boolean isMember(String userId) {
+            return memberSet.contains(userId);
+        }
+    }
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Cache<String, RoomMembership> cache;
+
+    public RoomMembershipCache(ChatRoomRepository chatRoomRepository,
+                               KafkaTemplate<String, String> kafkaTemplate,
+                               @Value("${app.chat.membership-cache.max-size:50000}") long maxSize,
+                               @Value("${app.chat.membership-cache.ttl:10m}") Duration ttl) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<RoomMembership> get(String roomId) {
+        return Optional.ofNullable(cache.get(roomId, id -> chatRoomRepository.findById(id).map(this::toMembership).orElse(null)));
+    }
+
+    public boolean isMember(String roomId, String userId) {
+        return get(roomId).map(room -> room.isMember(userId)).orElse(false);
+    }
+
+    /**
+     * Call after persisting a membership change.
+     */
+    public void onRoomChanged(ChatRoom room) {
+        cache.put(room.getId(), toMembership(room));
+        kafkaTemplate.send(ROOM_MEMBERSHIP_TOPIC, room.getId(), room.getId());
+    }
+
+    @KafkaListener(topics = ROOM_MEMBERSHIP_TOPIC, containerFactory = "roomMembershipListenerContainerFactory")
+    public void handleRoomChanged(String roomId) {
+        if (Objects.nonNull(roomId)) {
+            cache.invalidate(roomId);
+        }
+    }
+
+    private RoomMembership toMembership(ChatRoom room) {
+        List<String> memberIds = Objects.nonNull(room.getMemberIds()) ? List.copyOf(room.getMemberIds()) : List.of();
+        return new RoomMembership(room.getId(), room.getType(), room.getChatName(), room.getImgUrl(),
+                memberIds, Set.copyOf(memberIds));
+    }
+}
@@ -0,0 +1,66 @@
+package com.cine.social.chatservice.service.impl;
+
+import com.cine.social.chatservice.entity.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns per-room message sequence numbers in the persistence consumer instead of on the send path. Chat messages
+ * are keyed by room, so one consumer thread owns a room at a time and its counter lives in memory, seeded from the
+ * highest stored seq the first time the room is seen. Counters are dropped on every rebalance, the next owner seeds
+ * again from what is stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomSequencer {
+
+    private final MongoTemplate mongoTemplate;
+
+    // roomId -> last seq handed out by this consumer
+    private final Map<String, Long> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the seq of every message in the batch. A message already stored by an earlier delivery keeps its stored
+     * seq, so a redelivered batch is numbered the same way and its inserts are skipped as duplicates.
+     */
+    public void assign(List<ChatMessage> batch) {
+        List<String> ids = batch.stream().map(ChatMessage::getId).toList();
+        Query storedQuery = Query.query(Criteria.where("_id").in(ids));
+        storedQuery.fields().include("seq");
+        Map<String, Long> stored = mongoTemplate.find(storedQuery, ChatMessage.class).stream()
+                .filter(message -> Objects.nonNull(message.getSeq()))
+                .collect(Collectors.toMap(ChatMessage::getId, ChatMessage::getSeq));
+
+        for (ChatMessage message : batch) {
+            Long seq = stored.get(message.getId());
+            message.setSeq(Objects.nonNull(seq) ? seq : next(message.getRoomId()));
+        }
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    private long next(String roomId) {
+        return counters.compute(roomId, (id, last) -> (Objects.nonNull(last) ? last : storedMax(id)) + 1);
+    }
+
+    private long storedMax(String roomId) {
+        Query query = Query.query(Criteria.where("roomId").is(roomId).and("seq").exists(true))
+                .with(Sort.by(Sort.Direction.DESC, "seq"))
+                .limit(1);
+        query.fields().include("seq");
+        ChatMessage last = mongoTemplate.findOne(query, ChatMessage.class);
+        return Objects.nonNull(last) ? last.getSeq() : 0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.cine.social.chatservice.service.impl;
+
+import com.cine.social.chatservice.configuration.StompDestinations;
+import com.cine.social.chatservice.entity.RoomSubscription;
+import com.cine.social.chatservice.property.ChatDeliveryProperties;
+import com.cine.social.chatservice.repository.RoomSubscriptionRepository;
+import com.cine.social.common.delivery.DeliveryNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which rooms have STOMP subscribers on this node and publishes (room, node) pairs to room_subscriptions
+ * so the router only forwards a room's messages to the nodes that can deliver them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomSubscriptionRegistry {
+
+    private final RoomSubscriptionRepository roomSubscriptionRepository;
+    private final DeliveryNode deliveryNode;
+    private final ChatDeliveryProperties properties;
+
+    // sessionId -> (subscriptionId -> roomId)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> roomSubscribers = new ConcurrentHashMap<>();
+
+    public boolean hasLocalSubscribers(String roomId) {
+        return roomSubscribers.containsKey(roomId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (Objects.isNull(destination) || Objects.isNull(accessor.getSessionId())) {
+            return;
+        }
+        String roomId = StompDestinations.roomTopicId(destination);
+        if (Objects.isNull(roomId)) {
+            return;
+        }
+        sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), roomId);
+        increment(roomId);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(accessor.getSessionId());
+        if (Objects.isNull(subscriptions)) {
+            return;
+        }
+        String roomId = subscriptions.remove(accessor.getSubscriptionId());
+        if (Objects.nonNull(roomId)) {
+            decrement(roomId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (Objects.nonNull(subscriptions)) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    /**
+     * Re-publishes every locally subscribed room, extending its expiry. Also used after the node moves to a new partition.
+     */
+    public void refresh() {
+        if (!deliveryNode.hasPartition()) {
+            return;
+        }
+        List<RoomSubscription> rows = roomSubscribers.keySet().stream()
+                .map(this::toSubscription)
+                .toList();
+        if (!rows.isEmpty()) {
+            roomSubscriptionRepository.saveAll(rows);
+        }
+    }
+
+    public void clear() {
+        roomSubscriptionRepository.deleteByNodeId(deliveryNode.getNodeId());
+    }
+
+    private void increment(String roomId) {
+        Integer count = roomSubscribers.merge(roomId, 1, Integer::sum);
+        if (count == 1 && deliveryNode.hasPartition()) {
+            roomSubscriptionRepository.save(toSubscription(roomId));
+        }
+    }
+
+    private void decrement(String roomId) {
+        Integer count = roomSubscribers.computeIfPresent(roomId, (id, current) -> current > 1 ? current - 1 : null);
+        if (Objects.isNull(count)) {
+            roomSubscriptionRepository.deleteById(subscriptionId(roomId));
+        }
+    }
+
+    private RoomSubscription toSubscription(String roomId) {
+        return RoomSubscription.builder()
+                .id(subscriptionId(roomId))
+                .roomId(roomId)
+                .nodeId(deliveryNode.getNodeId())
+                .partition(deliveryNode.getPartition())
+                .expiresAt(new Date(System.currentTimeMillis() + properties.getLeaseTtl().toMillis()))
+                .build();
+    }
+
+    private String subscriptionId(String roomId) {
+        return roomId + ":" + deliveryNode.getNodeId();
+    }
+}
@@ -17,7 +17,7 @@ public class UserProfileConsumerService {
     private final UserProfileRepository userProfileRepository;
     private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "PROFILE_UPDATED", groupId = "post-service-group")
+    @KafkaListener(topics = "PROFILE_UPDATED", groupId = "chat-service-profile-group")
     public void handleProfileUpdate(String message) {
         log.info("Receive message {} ", message);
         try {
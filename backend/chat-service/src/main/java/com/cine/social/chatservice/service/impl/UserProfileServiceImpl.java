@@ -6,6 +6,7 @@ import com.cine.social.chatservice.httpclient.IdentityClient;
 import com.cine.social.chatservice.mapper.UserProfileMapper;
 import com.cine.social.chatservice.repository.UserProfileRepository;
 import com.cine.social.chatservice.service.UserProfileService;
+import com.cine.social.common.cache.ProfileCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,7 +14,6 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -24,6 +24,7 @@ public class UserProfileServiceImpl implements UserProfileService {
     private final UserProfileRepository userProfileRepository;
     private final IdentityClient identityClient;
     private final UserProfileMapper userProfileMapper;
+    private final ProfileCache<UserProfile> userProfileCache;
 
 
 
@@ -34,15 +35,7 @@ public class UserProfileServiceImpl implements UserProfileService {
         }
 
         List<String> toFetch = new ArrayList<>(userIds);
-
-        List<String> existedIds = userProfileRepository.findAllById(toFetch)
-                .stream()
-                .map(UserProfile::getId)
-                .collect(Collectors.toList());
-
-        if (!existedIds.isEmpty()) {
-            toFetch.removeAll(existedIds);
-        }
+        toFetch.removeAll(userProfileCache.getAll(userIds).keySet());
 
         if (toFetch.isEmpty()) {
             return;
@@ -53,7 +46,8 @@ public class UserProfileServiceImpl implements UserProfileService {
             if (Objects.nonNull(response) && Objects.nonNull(response.getData())) {
                 List<UserResponse> profilesData = response.getData();
                 List<UserProfile> usersProfile = userProfileMapper.toListEntities(profilesData);
-                userProfileRepository.saveAll(usersProfile);
+                userProfileRepository.saveAll(usersProfile)
+                        .forEach(profile -> userProfileCache.put(profile.getId(), profile));
             }
         } catch (Exception e) {
             log.error("Failed to fetch user profile for  {}", toFetch, e);
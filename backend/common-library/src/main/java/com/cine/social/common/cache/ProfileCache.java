@@ -0,0 +1,53 @@
+package com.cine.social.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of user profiles keyed by user id.
+ * Missing profiles are not cached, so a later insert is picked up on the next lookup.
+ */
+public class ProfileCache<V> {
+    @Getter
+    private final String name;
+    @Getter
+    private final Cache<String, V> nativeCache;
+    private final Function<String, V> loader;
+    private final Function<Set<String>, Map<String, V>> bulkLoader;
+
+    public ProfileCache(String name,
+                        ProfileCacheProperties properties,
+                        Function<String, V> loader,
+                        Function<Set<String>, Map<String, V>> bulkLoader) {
+        this.name = name;
+        this.loader = loader;
+        this.bulkLoader = bulkLoader;
+        this.nativeCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public V get(String id) {
+        return nativeCache.get(id, loader);
+    }
+
+    public Map<String, V> getAll(Collection<String> ids) {
+        return nativeCache.getAll(ids, keys -> bulkLoader.apply(Set.copyOf(keys)));
+    }
+
+    public void put(String id, V value) {
+        nativeCache.put(id, value);
+    }
+
+    public void invalidate(String id) {
+        nativeCache.invalidate(id);
+    }
+}
@@ -0,0 +1,75 @@
+package com.cine.social.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+@EnableConfigurationProperties(ProfileCacheProperties.class)
+public class ProfileCacheAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ProfileCacheMetricsConfiguration {
+
+        @Bean
+        public SmartInitializingSingleton profileCacheMetricsBinder(ObjectProvider<MeterRegistry> registry,
+                                                                    ObjectProvider<ProfileCache<?>> caches) {
+            return () -> registry.ifAvailable(meterRegistry -> caches.orderedStream()
+                    .forEach(cache -> CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), cache.getName())));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ConcurrentKafkaListenerContainerFactory.class)
+    @ConditionalOnBean(ProfileCache.class)
+    @ConditionalOnProperty(prefix = "app.profile-cache.invalidation", name = "enabled", matchIfMissing = true)
+    static class ProfileCacheInvalidationConfiguration {
+
+        @Bean
+        public ConcurrentKafkaListenerContainerFactory<String, String> profileCacheListenerContainerFactory(
+                KafkaProperties kafkaProperties,
+                @Value("${spring.application.name:application}") String applicationName) {
+            Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+            // Throw-away group per instance, offsets are never committed so the group disappears with the instance
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-profile-cache-" + UUID.randomUUID());
+            props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+            ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+            factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+            return factory;
+        }
+
+        @Bean
+        public ProfileCacheInvalidationListener profileCacheInvalidationListener(List<ProfileCache<?>> caches,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 ProfileCacheProperties properties) {
+            return new ProfileCacheInvalidationListener(caches, objectMapper, properties);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cine.social.common.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts updated profiles from every {@link ProfileCache} of this instance.
+ * Runs in a per-instance consumer group so each replica sees every PROFILE_UPDATED event.
+ */
+@Slf4j
+public class ProfileCacheInvalidationListener {
+    private final List<ProfileCache<?>> caches;
+    private final ObjectMapper objectMapper;
+    private final long repeatAfterMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "profile-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProfileCacheInvalidationListener(List<ProfileCache<?>> caches, ObjectMapper objectMapper, ProfileCacheProperties properties) {
+        this.caches = caches;
+        this.objectMapper = objectMapper;
+        this.repeatAfterMs = properties.getInvalidation().getRepeatAfter().toMillis();
+    }
+
+    @KafkaListener(
+            topics = "${app.profile-cache.invalidation.topic:PROFILE_UPDATED}",
+            containerFactory = "profileCacheListenerContainerFactory"
+    )
+    public void onProfileUpdated(String message) {
+        try {
+            JsonNode rootNode = objectMapper.readTree(message);
+            if (rootNode.has("payload") && rootNode.get("payload").isTextual()) {
+                rootNode = objectMapper.readTree(rootNode.get("payload").asText());
+            }
+            String userId = rootNode.path("userId").asText(null);
+            if (userId == null) {
+                return;
+            }
+            invalidate(userId);
+            // The local profile table may be updated by another consumer after this eviction, evict again once it has caught up
+            scheduler.schedule(() -> invalidate(userId), repeatAfterMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("Error invalidating profile cache", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void invalidate(String userId) {
+        caches.forEach(cache -> cache.invalidate(userId));
+    }
+}
@@ -0,0 +1,25 @@
+package com.cine.social.common.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.profile-cache")
+@Getter
+@Setter
+public class ProfileCacheProperties {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+    private Invalidation invalidation = new Invalidation();
+
+    @Getter
+    @Setter
+    public static class Invalidation {
+        private boolean enabled = true;
+        private String topic = "PROFILE_UPDATED";
+        // Second invalidation after the owning service has applied the update to its own table
+        private Duration repeatAfter = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,25 @@
+package com.cine.social.common.delivery;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * What a service does with its leased delivery partition.
+ */
+public interface DeliveryCallback {
+
+    /**
+     * Hands one record routed to this node to its local connections.
+     */
+    void deliver(ConsumerRecord<String, String> record);
+
+    /**
+     * Re-publishes which users or rooms this node serves, called after a partition is leased and on every heartbeat
+     * so the routing entries carry the current partition and never expire while the node is alive.
+     */
+    void refresh();
+
+    /**
+     * Drops every local connection and its routing entries, called on shutdown before the lease is released.
+     */
+    void clear();
+}
@@ -0,0 +1,27 @@
+package com.cine.social.common.delivery;
+
+import java.util.UUID;
+
+/**
+ * Identity of this service instance and the delivery partition it currently leases.
+ */
+public class DeliveryNode {
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile int partition = -1;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public boolean hasPartition() {
+        return partition >= 0;
+    }
+}
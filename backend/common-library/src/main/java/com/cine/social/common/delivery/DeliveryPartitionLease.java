@@ -0,0 +1,19 @@
+package com.cine.social.common.delivery;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Document(collection = "delivery_partition_leases")
+@Data
+@Builder
+public class DeliveryPartitionLease {
+    @Id
+    private Integer partition;
+
+    private String nodeId;
+    private Date expiresAt;
+}
@@ -0,0 +1,165 @@
+package com.cine.social.common.delivery;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases one partition of a delivery topic for this node in delivery_partition_leases and consumes only that
+ * partition, so each instance receives just the records routed to it instead of the whole stream. The lease is
+ * renewed every heartbeat; when it is lost the node moves to a free partition and the callback re-publishes its routes.
+ */
+@Slf4j
+public class DeliveryPartitionManager implements SmartLifecycle {
+    private final MongoTemplate mongoTemplate;
+    private final KafkaProperties kafkaProperties;
+    private final DeliveryPartitionProperties properties;
+    private final DeliveryNode deliveryNode;
+    private final String groupId;
+    private final DeliveryCallback callback;
+
+    private KafkaMessageListenerContainer<String, String> container;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public DeliveryPartitionManager(MongoTemplate mongoTemplate,
+                                    KafkaProperties kafkaProperties,
+                                    DeliveryPartitionProperties properties,
+                                    DeliveryNode deliveryNode,
+                                    String groupId,
+                                    DeliveryCallback callback) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaProperties = kafkaProperties;
+        this.properties = properties;
+        this.deliveryNode = deliveryNode;
+        this.groupId = groupId;
+        this.callback = callback;
+    }
+
+    @Override
+    public synchronized void start() {
+        acquireAndListen();
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, groupId + "-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        executor.shutdownNow();
+        stopContainer();
+        callback.clear();
+        mongoTemplate.remove(ownedLease(deliveryNode.getPartition()), DeliveryPartitionLease.class);
+        deliveryNode.setPartition(-1);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    synchronized void heartbeat() {
+        if (!running) {
+            return;
+        }
+        try {
+            long renewed = mongoTemplate.updateFirst(ownedLease(deliveryNode.getPartition()),
+                    Update.update("expiresAt", leaseExpiry()), DeliveryPartitionLease.class).getMatchedCount();
+            if (renewed == 0) {
+                log.warn("Lost lease on {} partition {}, acquiring a new one", properties.getTopic(), deliveryNode.getPartition());
+                stopContainer();
+                acquireAndListen();
+            }
+            callback.refresh();
+        } catch (Exception e) {
+            // The executor stops rescheduling on an exception, the next heartbeat retries instead
+            log.error("Delivery heartbeat on {} failed", properties.getTopic(), e);
+        }
+    }
+
+    private void acquireAndListen() {
+        int partition = acquireLease();
+        deliveryNode.setPartition(partition);
+        callback.refresh();
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        // Live delivery only, anything published before this node took the partition is served from history
+        ContainerProperties containerProperties = new ContainerProperties(
+                new TopicPartitionOffset(properties.getTopic(), partition, TopicPartitionOffset.SeekPosition.END));
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setMessageListener((MessageListener<String, String>) callback::deliver);
+
+        container = new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(props), containerProperties);
+        container.setBeanName(properties.getTopic() + "-" + partition);
+        container.start();
+        log.info("Node {} consuming {} partition {}", deliveryNode.getNodeId(), properties.getTopic(), partition);
+    }
+
+    private int acquireLease() {
+        int partitions = properties.getPartitions();
+        int offset = ThreadLocalRandom.current().nextInt(partitions);
+        for (int i = 0; i < partitions; i++) {
+            int partition = (offset + i) % partitions;
+            Query freeOrOwned = Query.query(Criteria.where("_id").is(partition)
+                    .orOperator(Criteria.where("expiresAt").lt(new Date()), Criteria.where("nodeId").is(deliveryNode.getNodeId())));
+            Update claim = new Update().set("nodeId", deliveryNode.getNodeId()).set("expiresAt", leaseExpiry());
+            try {
+                DeliveryPartitionLease lease = mongoTemplate.findAndModify(freeOrOwned, claim,
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), DeliveryPartitionLease.class);
+                if (Objects.nonNull(lease)) {
+                    return partition;
+                }
+            } catch (DuplicateKeyException e) {
+                // Held by another live node
+            }
+        }
+        throw new IllegalStateException("All " + partitions + " partitions of " + properties.getTopic() + " are leased, raise the partitions setting");
+    }
+
+    private void stopContainer() {
+        if (Objects.nonNull(container)) {
+            container.stop();
+            container = null;
+        }
+    }
+
+    private Query ownedLease(int partition) {
+        return Query.query(Criteria.where("_id").is(partition).and("nodeId").is(deliveryNode.getNodeId()));
+    }
+
+    private Date leaseExpiry() {
+        return new Date(System.currentTimeMillis() + properties.getLeaseTtl().toMillis());
+    }
+}
@@ -0,0 +1,19 @@
+package com.cine.social.common.delivery;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Settings of a leased delivery topic, extended by each service's own app.*.delivery properties.
+ */
+@Getter
+@Setter
+public class DeliveryPartitionProperties {
+    private String topic;
+    // Upper bound on service instances, each instance leases one partition
+    private int partitions = 32;
+    private Duration leaseTtl = Duration.ofSeconds(30);
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+}
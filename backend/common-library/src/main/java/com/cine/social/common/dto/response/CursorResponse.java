@@ -0,0 +1,15 @@
+package com.cine.social.common.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+    private int pageSize;
+    private boolean hasNext;
+    private String nextCursor;
+    private T items;
+}
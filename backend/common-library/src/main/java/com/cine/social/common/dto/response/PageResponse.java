@@ -12,6 +12,7 @@ public class PageResponse<T> {
     private int pageSize;
     private int totalPage;
     private long totalElement;
+    private boolean hasNext;
     private String[] sortBy;
     private T items;
 }
@@ -13,7 +13,8 @@ public enum CommonErrorCode implements ErrorCode {
     INVALID_TOKEN(1005, "Invalid token", HttpStatus.UNAUTHORIZED),
     ACCESS_TOKEN_EXPIRED(1006, "Access token expired", HttpStatus.UNAUTHORIZED),
     USER_NOT_FOUND(1007,"User not found", HttpStatus.BAD_REQUEST ),
-    BAD_CREDENTIAL(1008, "You do not have permission, bad credential", HttpStatus.FORBIDDEN);
+    BAD_CREDENTIAL(1008, "You do not have permission, bad credential", HttpStatus.FORBIDDEN),
+    INVALID_CURSOR(1009, "Invalid pagination cursor", HttpStatus.BAD_REQUEST);
 
     CommonErrorCode(int code, String message, HttpStatusCode statusCode) {
         this.code = code;
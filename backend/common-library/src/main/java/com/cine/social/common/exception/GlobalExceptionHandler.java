@@ -10,6 +10,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -64,4 +65,21 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(CommonErrorCode.VALIDATION_ERROR.getStatusCode()).body(apiResponse);
     }
+
+    @ExceptionHandler(value = HandlerMethodValidationException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handlingParameterValidation(HandlerMethodValidationException exception) {
+        Map<String, String> errors = new HashMap<>();
+
+        exception.getAllValidationResults().forEach(result -> {
+            String parameterName = result.getMethodParameter().getParameterName();
+            result.getResolvableErrors().forEach(error -> errors.put(parameterName, error.getDefaultMessage()));
+        });
+        ApiResponse<Map<String, String>> apiResponse = ApiResponse.<Map<String, String>>builder()
+                .code(CommonErrorCode.VALIDATION_ERROR.getCode())
+                .message(CommonErrorCode.VALIDATION_ERROR.getMessage())
+                .data(errors)
+                .build();
+
+        return ResponseEntity.status(CommonErrorCode.VALIDATION_ERROR.getStatusCode()).body(apiResponse);
+    }
 }
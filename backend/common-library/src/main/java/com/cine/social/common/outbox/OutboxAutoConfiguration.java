@@ -0,0 +1,60 @@
+package com.cine.social.common.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+@AutoConfiguration(after = {KafkaAutoConfiguration.class, JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+@ConditionalOnClass({JdbcTemplate.class, MeterRegistry.class})
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox.purge", name = "enabled", havingValue = "true")
+    public OutboxPurger outboxPurger(JdbcTemplate jdbcTemplate,
+                                     OutboxProperties properties,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OutboxPurger(jdbcTemplate, properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(KafkaTemplate.class)
+    @ConditionalOnProperty(prefix = "app.outbox.relay", name = "enabled", havingValue = "true")
+    static class OutboxRelayConfiguration {
+
+        @Bean
+        public OutboxRelay outboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       KafkaProperties kafkaProperties,
+                                       OutboxProperties properties,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+            Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+            props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            props.put(ProducerConfig.ACKS_CONFIG, "all");
+            props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+            return new OutboxRelay(jdbcTemplate, transactionTemplate, new DefaultKafkaProducerFactory<>(props), properties,
+                    meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        }
+    }
+}
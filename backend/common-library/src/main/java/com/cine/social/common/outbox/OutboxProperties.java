@@ -0,0 +1,35 @@
+package com.cine.social.common.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+    private String table = "outbox_events";
+    private Relay relay = new Relay();
+    private Purge purge = new Purge();
+
+    @Getter
+    @Setter
+    public static class Relay {
+        // Off by default, the Debezium connector in debezium-config.txt relays the table instead
+        private boolean enabled = false;
+        private int batchSize = 200;
+        private Duration pollInterval = Duration.ofMillis(200);
+        private Duration sendTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Purge {
+        private boolean enabled = false;
+        private Duration retention = Duration.ofDays(7);
+        private Duration interval = Duration.ofHours(1);
+        private int batchSize = 1000;
+    }
+}
@@ -0,0 +1,77 @@
+package com.cine.social.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes outbox rows past the retention period in small batches. When the in-process relay is enabled only rows
+ * already marked sent are removed, otherwise rows are assumed to have been captured by Debezium.
+ */
+@Slf4j
+public class OutboxPurger implements SmartLifecycle {
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxProperties properties;
+    private final Counter purgedCounter;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public OutboxPurger(JdbcTemplate jdbcTemplate, OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.purgedCounter = meterRegistry.counter("outbox.purged");
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getPurge().getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void purge() {
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(properties.getPurge().getRetention()));
+            String sentFilter = properties.getRelay().isEnabled() ? " AND sent_at IS NOT NULL" : "";
+            String sql = "DELETE FROM " + properties.getTable() + " WHERE created_at < ?" + sentFilter + " LIMIT ?";
+
+            int total = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(sql, cutoff, properties.getPurge().getBatchSize());
+                total += deleted;
+            } while (deleted == properties.getPurge().getBatchSize());
+
+            purgedCounter.increment(total);
+            if (total > 0) {
+                log.info("Purged {} outbox rows older than {}", total, cutoff);
+            }
+        } catch (Exception e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+}
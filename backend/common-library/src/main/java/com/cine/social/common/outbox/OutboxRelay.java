@@ -0,0 +1,195 @@
+package com.cine.social.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls unsent outbox rows and publishes each payload to the topic named by its type, keyed by aggregate id,
+ * the same record shape the Debezium EventRouter produces. Rows are claimed with FOR UPDATE SKIP LOCKED so
+ * replicas never publish the same batch, and are marked sent in the claiming transaction. Delivery is at-least-once.
+ * <p>
+ * SKIP LOCKED alone would let two replicas publish rows of one aggregate at the same time, so a DELETE could overtake
+ * the UPSERT before it. An aggregate whose older rows are still unsent outside this batch, claimed by another replica,
+ * is left for a later poll, which keeps every aggregate in created_at order.
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxProperties properties;
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public OutboxRelay(NamedParameterJdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       DefaultKafkaProducerFactory<String, String> producerFactory,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.producerFactory = producerFactory;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.properties = properties;
+        this.publishedCounter = meterRegistry.counter("outbox.relay.published");
+        this.failureCounter = meterRegistry.counter("outbox.relay.failures");
+        this.batchTimer = meterRegistry.timer("outbox.relay.batch");
+        meterRegistry.gauge("outbox.relay.lag", lagMillis, value -> value.get() / 1000.0);
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        executor.execute(this::pollLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(properties.getRelay().getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The factory is private to the relay, nothing else closes its producer
+        producerFactory.destroy();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void pollLoop() {
+        if (!running) {
+            return;
+        }
+        long delay = properties.getRelay().getPollInterval().toMillis();
+        try {
+            Integer published = batchTimer.recordCallable(() -> transactionTemplate.execute(status -> relayBatch()));
+            // Keep draining while batches come back full
+            if (Objects.nonNull(published) && published >= properties.getRelay().getBatchSize()) {
+                delay = 0;
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.error("Outbox relay batch failed, rows will be retried", e);
+        }
+        if (running) {
+            executor.schedule(this::pollLoop, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private int relayBatch() {
+        String table = properties.getTable();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, aggregate_id, type, payload, created_at FROM " + table +
+                        " WHERE sent_at IS NULL ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("limit", properties.getRelay().getBatchSize()));
+
+        if (rows.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+
+        Timestamp oldest = (Timestamp) rows.get(0).get("created_at");
+        lagMillis.set(Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis());
+
+        rows = withoutBlockedAggregates(rows);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(rows.size());
+        List<String> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            ids.add((String) row.get("id"));
+            sends.add(kafkaTemplate.send((String) row.get("type"), (String) row.get("aggregate_id"), (String) row.get("payload")));
+        }
+        kafkaTemplate.flush();
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.getRelay().getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to publish outbox batch", e);
+        }
+
+        jdbcTemplate.update("UPDATE " + table + " SET sent_at = :now WHERE id IN (:ids)",
+                new MapSqlParameterSource("now", Timestamp.valueOf(LocalDateTime.now())).addValue("ids", ids));
+        publishedCounter.increment(rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Drops the rows of aggregates that still have an unsent row at least as old as their first row in this batch
+     * which was not claimed here, either locked by another replica or cut off by the batch limit. The check is a
+     * plain read, so it sees the other replica's rows as unsent until that replica commits.
+     */
+    private List<Map<String, Object>> withoutBlockedAggregates(List<Map<String, Object>> rows) {
+        Map<String, Timestamp> firstByAggregate = new HashMap<>();
+        List<String> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            firstByAggregate.putIfAbsent((String) row.get("aggregate_id"), (Timestamp) row.get("created_at"));
+            ids.add((String) row.get("id"));
+        }
+
+        Set<String> blocked = new HashSet<>();
+        jdbcTemplate.query("SELECT aggregate_id, created_at FROM " + properties.getTable() +
+                        " WHERE sent_at IS NULL AND aggregate_id IN (:aggregates) AND id NOT IN (:ids)",
+                new MapSqlParameterSource("aggregates", firstByAggregate.keySet()).addValue("ids", ids),
+                rs -> {
+                    String aggregateId = rs.getString("aggregate_id");
+                    if (!rs.getTimestamp("created_at").after(firstByAggregate.get(aggregateId))) {
+                        blocked.add(aggregateId);
+                    }
+                });
+        if (blocked.isEmpty()) {
+            return rows;
+        }
+        log.debug("Outbox aggregates {} have older rows claimed elsewhere, deferring them", blocked);
+        return rows.stream()
+                .filter(row -> !blocked.contains((String) row.get("aggregate_id")))
+                .toList();
+    }
+}
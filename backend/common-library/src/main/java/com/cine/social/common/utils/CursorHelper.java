@@ -0,0 +1,39 @@
+package com.cine.social.common.utils;
+
+import com.cine.social.common.exception.AppException;
+import com.cine.social.common.exception.CommonErrorCode;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class CursorHelper {
+    private static final String SEPARATOR = "|";
+    // Upper bound accepted by MySQL DATETIME, used as the cursor of the first page
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public record Cursor(LocalDateTime createdAt, String id) {
+        public static final Cursor FIRST = new Cursor(MAX_CREATED_AT, "");
+    }
+
+    private CursorHelper() {}
+
+    public static String encode(LocalDateTime createdAt, String id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return Cursor.FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, idx)), raw.substring(idx + 1));
+        } catch (RuntimeException e) {
+            throw new AppException(CommonErrorCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.regex.Pattern;
 
 @Service
 public class PageHelper {
+    public final static int MAX_PAGE_SIZE = 100;
 
     public static Pageable pageEngine(int pageNo, int pageSize, String... sorts){
         if(pageNo > 0){
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,20 @@ public class MediaProcessedEvent {
     private String postId;
     private String status;
     private String processedUrl;
-}
\ No newline at end of file
+    // HLS master playlist, null when only the progressive MP4 was produced
+    private String masterPlaylistUrl;
+    private List<Rendition> renditions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rendition {
+        private String name;
+        private int width;
+        private int height;
+        // Peak bits per second as advertised in the master playlist
+        private long bandwidth;
+        private String playlistUrl;
+    }
+}
@@ -13,6 +13,8 @@ public class NotificationEvent {
     private String actorImgUrl;
     private String recipientId;
     private String resourceId;
+    // Set for comment-scoped types, resourceId stays the post the comment belongs to
+    private String commentId;
     private String type;
     private String message;
     private String timestamp;
@@ -7,7 +7,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "outbox_events")
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_sent_created", columnList = "sent_at, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,4 +26,6 @@ public class OutboxEvent {
 
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
 }
\ No newline at end of file
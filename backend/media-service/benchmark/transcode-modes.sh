@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Compares the temp-file and streaming transcode paths of VideoServiceImpl over a directory of sample clips.
+# MinIO is replaced by local reads and writes to /dev/null so only ffmpeg and local disk are measured.
+#
+#   ./transcode-modes.sh <clips-dir> [ffmpeg-threads]
+#
+# Prints one CSV row per clip and mode: wall time in ms and bytes written to local disk.
+set -euo pipefail
+
+CLIPS_DIR=${1:?usage: transcode-modes.sh <clips-dir> [ffmpeg-threads]}
+THREADS=${2:-2}
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+ENCODE=(-vcodec libx264 -crf 28 -preset fast -threads "$THREADS")
+FRAGMENTED=(-movflags frag_keyframe+empty_moov+default_base_moof -f mp4)
+
+now_ms() { date +%s%3N; }
+
+# Same decision as VideoServiceImpl#isStreamable: moov must come before mdat
+moov_first() {
+  local moov mdat
+  moov=$(grep -obUaP -m1 'moov' "$1" | head -1 | cut -d: -f1 || true)
+  mdat=$(grep -obUaP -m1 'mdat' "$1" | head -1 | cut -d: -f1 || true)
+  [[ -n "$moov" && ( -z "$mdat" || "$moov" -lt "$mdat" ) ]]
+}
+
+file_mode() {
+  local clip=$1 raw="$WORK_DIR/raw.mp4" out="$WORK_DIR/processed.mp4"
+  cp "$clip" "$raw"
+  ffmpeg -v error -y -i "$raw" "${ENCODE[@]}" "$out"
+  cat "$out" > /dev/null
+  echo $(( $(stat -c %s "$raw") + $(stat -c %s "$out") ))
+  rm -f "$raw" "$out"
+}
+
+streaming_mode() {
+  local clip=$1
+  cat "$clip" | ffmpeg -v error -y -i pipe:0 "${ENCODE[@]}" "${FRAGMENTED[@]}" pipe:1 > /dev/null
+  echo 0
+}
+
+echo "clip,size_bytes,mode,wall_ms,disk_bytes"
+for clip in "$CLIPS_DIR"/*; do
+  [[ -f "$clip" ]] || continue
+  name=$(basename "$clip")
+  size=$(stat -c %s "$clip")
+
+  start=$(now_ms)
+  disk=$(file_mode "$clip")
+  echo "$name,$size,file,$(( $(now_ms) - start )),$disk"
+
+  if moov_first "$clip"; then
+    start=$(now_ms)
+    disk=$(streaming_mode "$clip")
+    echo "$name,$size,streaming,$(( $(now_ms) - start )),$disk"
+  else
+    echo "$name,$size,streaming,skipped (moov after mdat),"
+  fi
+done
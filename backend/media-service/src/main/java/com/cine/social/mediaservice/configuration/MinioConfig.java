@@ -1,6 +1,7 @@
 package com.cine.social.mediaservice.configuration;
 
 import com.cine.social.mediaservice.property.MinioProperty;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,4 +16,13 @@ public class MinioConfig {
                 .credentials(minioProperty.getAccessKey(), minioProperty.getSecretKey())
                 .build();
     }
+
+    // Exposes the multipart primitives used by resumable uploads
+    @Bean
+    MinioAsyncClient minioAsyncClient(MinioProperty minioProperty){
+        return MinioAsyncClient.builder()
+                .endpoint(minioProperty.getUrl())
+                .credentials(minioProperty.getAccessKey(), minioProperty.getSecretKey())
+                .build();
+    }
 }
@@ -0,0 +1,54 @@
+package com.cine.social.mediaservice.configuration;
+
+import com.cine.social.mediaservice.property.MinioProperty;
+import com.cine.social.mediaservice.property.PresignProperties;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketLifecycleArgs;
+import io.minio.messages.Expiration;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Creates the private bucket without any access policy, so nothing in it is served to clients, and expires the
+ * presigned upload staging objects left in it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrivateBucketInitializer {
+
+    private final MinioClient minioClient;
+    private final MinioProperty minioProperty;
+    private final PresignProperties presignProperties;
+
+    @PostConstruct
+    public void init() {
+        String bucket = minioProperty.getPrivateBucket();
+        try {
+            if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                log.info("Created private bucket {}", bucket);
+            }
+            LifecycleRule expireStaging = new LifecycleRule(Status.ENABLED, null,
+                    new Expiration((ZonedDateTime) null, (int) Math.max(1, presignProperties.getStagingExpiry().toDays()), null),
+                    new RuleFilter(presignProperties.getStagingPrefix()), "expire-staging", null, null, null);
+            minioClient.setBucketLifecycle(SetBucketLifecycleArgs.builder()
+                    .bucket(bucket)
+                    .config(new LifecycleConfiguration(List.of(expireStaging)))
+                    .build());
+        } catch (Exception e) {
+            log.error("Cannot prepare private bucket {}", bucket, e);
+        }
+    }
+}
@@ -10,7 +10,14 @@ public enum MediaErrorCode implements ErrorCode {
     INVALID_FILE(8300,"Invalid file", HttpStatus.BAD_REQUEST ),
     EMPTY_FILE(8301, "File is empty" ,HttpStatus.BAD_REQUEST),
     UPLOAD_FAILED(8302,"There are something wrong with upload file" , HttpStatus.INTERNAL_SERVER_ERROR),
-    DELETE_FAILED(8303,"File deletion from MinIO failed" , HttpStatus.INTERNAL_SERVER_ERROR );
+    DELETE_FAILED(8303,"File deletion from MinIO failed" , HttpStatus.INTERNAL_SERVER_ERROR ),
+    UPLOAD_NOT_FOUND(8304, "Upload session not found or expired", HttpStatus.NOT_FOUND),
+    FILE_TOO_LARGE(8305, "File exceeds the maximum upload size", HttpStatus.BAD_REQUEST),
+    INVALID_PART(8306, "Invalid part number or part size", HttpStatus.BAD_REQUEST),
+    PART_CHECKSUM_MISMATCH(8307, "Part content does not match its checksum", HttpStatus.BAD_REQUEST),
+    UPLOAD_INCOMPLETE(8308, "Some parts have not been uploaded yet", HttpStatus.CONFLICT),
+    UPLOAD_MISMATCH(8309, "Uploaded object does not match the declared size or content type", HttpStatus.BAD_REQUEST),
+    INVALID_OBJECT_NAME(8310, "Invalid object name", HttpStatus.BAD_REQUEST);
 
 
 
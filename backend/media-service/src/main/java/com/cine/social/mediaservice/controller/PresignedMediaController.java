@@ -0,0 +1,39 @@
+package com.cine.social.mediaservice.controller;
+
+import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.mediaservice.dto.request.PresignUploadRequest;
+import com.cine.social.mediaservice.dto.response.MediaResponse;
+import com.cine.social.mediaservice.dto.response.PresignedUrlResponse;
+import com.cine.social.mediaservice.service.PresignedMediaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/media/presigned")
+@RequiredArgsConstructor
+public class PresignedMediaController {
+
+    private final PresignedMediaService presignedMediaService;
+
+    @PostMapping("/upload")
+    public ApiResponse<PresignedUrlResponse> presignUpload(@RequestBody PresignUploadRequest request) {
+        return ApiResponse.success(presignedMediaService.presignUpload(request));
+    }
+
+    @PostMapping("/upload/{objectName}/complete")
+    public ApiResponse<MediaResponse> confirmUpload(@PathVariable String objectName) {
+        return ApiResponse.success(presignedMediaService.confirmUpload(objectName));
+    }
+
+    @GetMapping("/download")
+    public ApiResponse<PresignedUrlResponse> presignDownload(@RequestParam String objectName) {
+        return ApiResponse.success(presignedMediaService.presignDownload(objectName));
+    }
+
+    @PostMapping("/download")
+    public ApiResponse<List<PresignedUrlResponse>> presignDownloads(@RequestBody List<String> objectNames) {
+        return ApiResponse.success(presignedMediaService.presignDownloads(objectNames));
+    }
+}
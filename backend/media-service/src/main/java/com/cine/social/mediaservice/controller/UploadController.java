@@ -0,0 +1,53 @@
+package com.cine.social.mediaservice.controller;
+
+import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.mediaservice.dto.request.UploadInitRequest;
+import com.cine.social.mediaservice.dto.response.MediaResponse;
+import com.cine.social.mediaservice.dto.response.UploadPartResponse;
+import com.cine.social.mediaservice.dto.response.UploadSessionResponse;
+import com.cine.social.mediaservice.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/media/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final ResumableUploadService resumableUploadService;
+
+    @PostMapping("/video")
+    public ApiResponse<UploadSessionResponse> initVideoUpload(@RequestBody UploadInitRequest request) {
+        return ApiResponse.success(resumableUploadService.initVideoUpload(request));
+    }
+
+    // Raw part bytes as the request body, not multipart, so nothing is spooled before reaching MinIO
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ApiResponse<UploadPartResponse> uploadPart(@PathVariable String uploadId,
+                                                      @PathVariable int partNumber,
+                                                      @RequestHeader(value = "Content-MD5", required = false) String contentMd5,
+                                                      HttpServletRequest request) throws IOException {
+        return ApiResponse.success(resumableUploadService.uploadPart(
+                uploadId, partNumber, request.getInputStream(), request.getContentLengthLong(), contentMd5));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ApiResponse<UploadSessionResponse> getUpload(@PathVariable String uploadId) {
+        return ApiResponse.success(resumableUploadService.getUpload(uploadId));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ApiResponse<MediaResponse> completeUpload(@PathVariable String uploadId) {
+        return ApiResponse.success(resumableUploadService.completeUpload(uploadId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ApiResponse<String> abortUpload(@PathVariable String uploadId) {
+        resumableUploadService.abortUpload(uploadId);
+        return ApiResponse.successWithMessage("Upload aborted");
+    }
+}
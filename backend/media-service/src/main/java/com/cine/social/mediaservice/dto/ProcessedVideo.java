@@ -0,0 +1,22 @@
+package com.cine.social.mediaservice.dto;
+
+import com.cine.social.event.MediaProcessedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Objects produced for one raw video: the progressive MP4 and, when packaging succeeded, the HLS ladder.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedVideo {
+    private String processedUrl;
+    private String masterPlaylistUrl;
+    private List<MediaProcessedEvent.Rendition> renditions;
+}
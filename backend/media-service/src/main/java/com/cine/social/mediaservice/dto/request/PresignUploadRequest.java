@@ -0,0 +1,18 @@
+package com.cine.social.mediaservice.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignUploadRequest {
+    private String fileName;
+    private String contentType;
+    private long size;
+    // IMAGE or VIDEO
+    private String type;
+}
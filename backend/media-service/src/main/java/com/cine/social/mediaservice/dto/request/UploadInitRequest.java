@@ -0,0 +1,16 @@
+package com.cine.social.mediaservice.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadInitRequest {
+    private String fileName;
+    private String contentType;
+    private long size;
+}
@@ -0,0 +1,16 @@
+package com.cine.social.mediaservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUrlResponse {
+    private String objectName;
+    private String url;
+    private long expiresAt;
+}
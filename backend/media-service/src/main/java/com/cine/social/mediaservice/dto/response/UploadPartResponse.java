@@ -0,0 +1,16 @@
+package com.cine.social.mediaservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadPartResponse {
+    private int partNumber;
+    private String etag;
+    private long size;
+}
@@ -0,0 +1,22 @@
+package com.cine.social.mediaservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+    private String uploadId;
+    private String objectName;
+    private long size;
+    private long partSize;
+    private int partCount;
+    // Parts already stored, a resuming client uploads only the missing ones
+    private List<UploadPartResponse> uploadedParts;
+}
@@ -0,0 +1,55 @@
+package com.cine.social.mediaservice.property;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.media.hls")
+public class HlsProperties {
+    private boolean enabled = true;
+    // Every packaged video lives under <prefix><raw object name without extension>/
+    private String prefix = "hls/";
+    private Duration segmentDuration = Duration.ofSeconds(4);
+    private int uploadThreads = 8;
+    // How often the work dir is scanned for segments ffmpeg has closed, they are uploaded while encoding continues
+    private Duration segmentPollInterval = Duration.ofMillis(500);
+    // The progressive MP4 is remuxed from the tallest rung not above this, the lowest rung when none is
+    private int progressiveHeight = 720;
+    // Lifetime of the internal URL ffmpeg reads the raw object from
+    private Duration sourceUrlExpiry = Duration.ofHours(2);
+    // Rungs taller than the source are skipped, the lowest one is always produced
+    private List<Rung> ladder = new ArrayList<>(List.of(
+            new Rung("1080p", 1080, 5000, 128),
+            new Rung("720p", 720, 2800, 128),
+            new Rung("480p", 480, 1400, 96),
+            new Rung("360p", 360, 800, 64)));
+
+    /**
+     * x264 encoders one packaging job runs at once, one per rung.
+     */
+    public int encodersPerJob() {
+        return enabled ? Math.max(1, ladder.size()) : 1;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rung {
+        private String name;
+        // Short side in pixels, so portrait reels get the same ladder as landscape videos
+        private int height;
+        private int videoBitrateKbps;
+        private int audioBitrateKbps;
+    }
+}
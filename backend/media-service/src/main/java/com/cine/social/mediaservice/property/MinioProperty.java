@@ -15,4 +15,9 @@ public class MinioProperty {
     private String accessKey;
     private String secretKey;
     private String bucket;
+    // Never publicly readable: upload staging objects and the JSON records of pending and resumable uploads
+    private String privateBucket;
+    // Endpoint clients reach MinIO on, presigned URLs are signed for this host
+    private String publicUrl;
+    private String region = "us-east-1";
 }
@@ -0,0 +1,30 @@
+package com.cine.social.mediaservice.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.media.presign")
+public class PresignProperties {
+    private Duration uploadExpiry = Duration.ofMinutes(15);
+    private Duration downloadExpiry = Duration.ofHours(1);
+    // A cached download URL is reissued once less than this is left of its validity
+    private Duration downloadRefreshMargin = Duration.ofMinutes(10);
+    private long downloadCacheMaxSize = 100_000;
+    private DataSize maxImageSize = DataSize.ofMegabytes(10);
+    // Prefix of the records kept for presigned uploads until the client confirms them, in the private bucket
+    private String pendingPrefix = "pending-uploads/";
+    // Presigned PUTs land here in the private bucket, confirmed uploads are copied to the public bucket
+    private String stagingPrefix = "staging/";
+    // Leftover staging objects, e.g. re-uploaded after confirmation, are expired by a bucket lifecycle rule
+    private Duration stagingExpiry = Duration.ofDays(1);
+    // Unconfirmed uploads are deleted this long after their upload URL expired
+    private Duration pendingGrace = Duration.ofMinutes(15);
+}
@@ -0,0 +1,34 @@
+package com.cine.social.mediaservice.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.media.transcode")
+public class TranscodeProperties {
+    // Concurrent ffmpeg jobs, 0 sizes the pool to available cores divided by the threads one job uses
+    private int workers = 0;
+    // Threads per x264 encoder, a job runs one encoder per HLS rung
+    private int ffmpegThreads = 2;
+    // Jobs waiting for a worker before the listener is paused
+    private int queueCapacity = 4;
+    // Pipe MinIO -> ffmpeg -> MinIO without temp files, inputs that need seeking still go through local disk
+    private boolean streaming = true;
+    // Head of the raw object scanned for the moov atom before choosing the streaming path
+    private DataSize probeSize = DataSize.ofKilobytes(64);
+    // Multipart part size for the streamed output, one part is buffered in memory per running job
+    private DataSize uploadPartSize = DataSize.ofMegabytes(16);
+
+    public int resolveWorkers(int encodersPerJob) {
+        if (workers > 0) {
+            return workers;
+        }
+        int threadsPerJob = Math.max(1, ffmpegThreads) * Math.max(1, encodersPerJob);
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / threadsPerJob);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cine.social.mediaservice.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.media.upload")
+public class UploadProperties {
+    // Every part but the last must be exactly this size, S3 requires at least 5MB
+    private DataSize partSize = DataSize.ofMegabytes(8);
+    private DataSize maxVideoSize = DataSize.ofGigabytes(2);
+    // Prefix of the small JSON objects holding resumable upload sessions, in the private bucket
+    private String sessionPrefix = "upload-sessions/";
+    // Sessions older than this are aborted and deleted by the sweep, counted from init, not from the last part
+    private Duration sessionTtl = Duration.ofHours(24);
+}
@@ -0,0 +1,19 @@
+package com.cine.social.mediaservice.service;
+
+import com.cine.social.mediaservice.dto.request.PresignUploadRequest;
+import com.cine.social.mediaservice.dto.response.MediaResponse;
+import com.cine.social.mediaservice.dto.response.PresignedUrlResponse;
+
+import java.util.List;
+
+public interface PresignedMediaService {
+    PresignedUrlResponse presignUpload(PresignUploadRequest request);
+
+    MediaResponse confirmUpload(String objectName);
+
+    PresignedUrlResponse presignDownload(String objectName);
+
+    List<PresignedUrlResponse> presignDownloads(List<String> objectNames);
+
+    void sweepExpiredUploads();
+}
@@ -0,0 +1,22 @@
+package com.cine.social.mediaservice.service;
+
+import com.cine.social.mediaservice.dto.request.UploadInitRequest;
+import com.cine.social.mediaservice.dto.response.MediaResponse;
+import com.cine.social.mediaservice.dto.response.UploadPartResponse;
+import com.cine.social.mediaservice.dto.response.UploadSessionResponse;
+
+import java.io.InputStream;
+
+public interface ResumableUploadService {
+    UploadSessionResponse initVideoUpload(UploadInitRequest request);
+
+    UploadPartResponse uploadPart(String uploadId, int partNumber, InputStream body, long contentLength, String contentMd5);
+
+    UploadSessionResponse getUpload(String uploadId);
+
+    MediaResponse completeUpload(String uploadId);
+
+    void abortUpload(String uploadId);
+
+    void sweepAbandonedUploads();
+}
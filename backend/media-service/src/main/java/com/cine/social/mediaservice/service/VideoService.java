@@ -1,5 +1,7 @@
 package com.cine.social.mediaservice.service;
 
+import com.cine.social.mediaservice.dto.ProcessedVideo;
+
 public interface VideoService {
-    String processVideo(String originalFileName);
+    ProcessedVideo processVideo(String originalFileName);
 }
@@ -0,0 +1,510 @@
+package com.cine.social.mediaservice.service.impl;
+
+import com.cine.social.event.MediaProcessedEvent;
+import com.cine.social.mediaservice.property.HlsProperties;
+import com.cine.social.mediaservice.property.TranscodeProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Packages a raw video into an HLS ladder with a single ffmpeg run. The source is decoded once and split into every
+ * rendition, keyframes are forced on segment boundaries so players can switch bitrate at any segment. ffmpeg reads the
+ * raw object over a presigned URL, which also serves inputs that need seeking. Segments are uploaded while ffmpeg is
+ * still encoding, the progressive MP4 is remuxed from one rendition and the master playlist goes last, so an existing
+ * master marks a complete package.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HlsPackager {
+    private final static String MASTER_PLAYLIST = "master.m3u8";
+    private final static String MEDIA_PLAYLIST = "index.m3u8";
+    private final static String PLAYLIST_CONTENT_TYPE = "application/vnd.apple.mpegurl";
+    private final static String SEGMENT_CONTENT_TYPE = "video/mp2t";
+    private final static String SEGMENT_EXTENSION = ".ts";
+    private final static String VIDEO_CONTENT_TYPE = "video/mp4";
+    private final static String PROGRESSIVE_FILE = "progressive.mp4";
+    private final static String STREAM_INF = "#EXT-X-STREAM-INF:";
+    private final static Pattern BANDWIDTH = Pattern.compile("(?:^|[:,])BANDWIDTH=(\\d+)");
+    private final static Pattern RESOLUTION = Pattern.compile("RESOLUTION=(\\d+)x(\\d+)");
+
+    private final MinioClient minioClient;
+    private final HlsProperties hlsProperties;
+    private final TranscodeProperties transcodeProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private ExecutorService uploader;
+    private Counter diskBytes;
+
+    @PostConstruct
+    public void start() {
+        uploader = Executors.newFixedThreadPool(hlsProperties.getUploadThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "hls-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        diskBytes = Counter.builder("media.transcode.disk.bytes").baseUnit("bytes").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        uploader.shutdownNow();
+    }
+
+    /**
+     * Packages the raw object and returns the object name of its master playlist. The progressive MP4 is remuxed from
+     * one rendition of the same run instead of being encoded again. A package whose master playlist already exists is
+     * reused, so a redelivered job does not encode the ladder twice.
+     */
+    public String packageVideo(String bucketName, String rawObjectName, String progressiveObjectName) throws Exception {
+        String directory = packageDirectory(rawObjectName);
+        String masterPlaylist = directory + MASTER_PLAYLIST;
+        if (objectExists(bucketName, masterPlaylist)) {
+            log.info("HLS package {} already exists, skipping packaging", masterPlaylist);
+            return masterPlaylist;
+        }
+
+        String sourceUrl = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET)
+                .bucket(bucketName)
+                .object(rawObjectName)
+                .expiry((int) hlsProperties.getSourceUrlExpiry().toSeconds())
+                .build());
+        Source source = probe(sourceUrl);
+        List<HlsProperties.Rung> rungs = selectRungs(source.shortSide());
+        HlsProperties.Rung progressiveRung = progressiveRung(rungs);
+
+        Path workDir = Files.createTempDirectory("hls_");
+        try {
+            for (HlsProperties.Rung rung : rungs) {
+                Files.createDirectories(workDir.resolve(rung.getName()));
+            }
+            log.info("Packaging {} into {} HLS renditions", rawObjectName, rungs.size());
+            List<CompletableFuture<Void>> uploads = runFfmpeg(ffmpegCommand(sourceUrl, source, rungs, workDir),
+                    bucketName, directory, workDir, workDir.resolve(progressiveRung.getName()));
+            awaitUploads(uploads);
+
+            Path progressive = workDir.resolve(PROGRESSIVE_FILE);
+            remux(workDir.resolve(progressiveRung.getName()).resolve(MEDIA_PLAYLIST), progressive);
+            putObject(bucketName, progressiveObjectName, progressive, VIDEO_CONTENT_TYPE);
+
+            uploadPlaylists(bucketName, directory, workDir);
+            return masterPlaylist;
+        } finally {
+            deleteDirectory(workDir);
+        }
+    }
+
+    /**
+     * Reads the rendition list back from a master playlist, the same way for fresh and reused packages.
+     */
+    public List<MediaProcessedEvent.Rendition> readRenditions(String bucketName, String masterPlaylist) throws Exception {
+        String directory = masterPlaylist.substring(0, masterPlaylist.length() - MASTER_PLAYLIST.length());
+        List<MediaProcessedEvent.Rendition> renditions = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(masterPlaylist)
+                .build()), StandardCharsets.UTF_8))) {
+            String streamInf = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith(STREAM_INF)) {
+                    streamInf = line;
+                } else if (Objects.nonNull(streamInf) && !line.isEmpty() && !line.startsWith("#")) {
+                    renditions.add(toRendition(streamInf, line, directory));
+                    streamInf = null;
+                }
+            }
+        }
+        return renditions;
+    }
+
+    public boolean isMasterPlaylist(String objectName) {
+        return objectName.startsWith(hlsProperties.getPrefix()) && objectName.endsWith("/" + MASTER_PLAYLIST);
+    }
+
+    /**
+     * Removes every object of the package the master playlist belongs to.
+     */
+    public void removePackage(String bucketName, String masterPlaylist) throws Exception {
+        String directory = masterPlaylist.substring(0, masterPlaylist.length() - MASTER_PLAYLIST.length());
+        List<DeleteObject> objects = new ArrayList<>();
+        for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(directory)
+                .recursive(true)
+                .build())) {
+            objects.add(new DeleteObject(result.get().objectName()));
+        }
+        if (objects.isEmpty()) {
+            return;
+        }
+        // Removal is lazy, the errors have to be iterated for the request to run
+        for (Result<DeleteError> error : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(objects)
+                .build())) {
+            log.warn("Failed to delete HLS object {}", error.get().objectName());
+        }
+    }
+
+    private Source probe(String sourceUrl) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(
+                "ffprobe", "-v", "error",
+                "-show_entries", "stream=codec_type,width,height:stream_tags=rotate:stream_side_data=rotation",
+                "-of", "json",
+                sourceUrl)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        JsonNode streams;
+        try (InputStream stdout = process.getInputStream()) {
+            streams = objectMapper.readTree(stdout).path("streams");
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException("FFprobe failed with exit code " + exitCode);
+        }
+
+        JsonNode video = null;
+        boolean hasAudio = false;
+        for (JsonNode stream : streams) {
+            String type = stream.path("codec_type").asText();
+            if ("video".equals(type) && Objects.isNull(video)) {
+                video = stream;
+            } else if ("audio".equals(type)) {
+                hasAudio = true;
+            }
+        }
+        if (Objects.isNull(video) || video.path("width").asInt() <= 0 || video.path("height").asInt() <= 0) {
+            throw new IOException("Source has no video stream");
+        }
+
+        // Phones record portrait video as rotated landscape frames, ffmpeg applies the rotation before scaling
+        int rotation = video.path("tags").path("rotate").asInt(0);
+        for (JsonNode sideData : video.path("side_data_list")) {
+            rotation = sideData.path("rotation").asInt(rotation);
+        }
+        int width = video.path("width").asInt();
+        int height = video.path("height").asInt();
+        return Math.abs(rotation) % 180 == 90
+                ? new Source(height, width, hasAudio)
+                : new Source(width, height, hasAudio);
+    }
+
+    private List<HlsProperties.Rung> selectRungs(int shortSide) {
+        List<HlsProperties.Rung> ladder = hlsProperties.getLadder().stream()
+                .sorted(Comparator.comparingInt(HlsProperties.Rung::getHeight).reversed())
+                .toList();
+        if (ladder.isEmpty()) {
+            throw new IllegalStateException("HLS ladder is empty");
+        }
+        List<HlsProperties.Rung> selected = ladder.stream()
+                .filter(rung -> rung.getHeight() <= shortSide)
+                .toList();
+        return selected.isEmpty() ? List.of(ladder.get(ladder.size() - 1)) : selected;
+    }
+
+    private List<String> ffmpegCommand(String sourceUrl, Source source, List<HlsProperties.Rung> rungs, Path workDir) {
+        long segmentSeconds = hlsProperties.getSegmentDuration().toSeconds();
+
+        StringBuilder filter = new StringBuilder("[0:v]split=").append(rungs.size());
+        for (int i = 0; i < rungs.size(); i++) {
+            filter.append("[s").append(i).append("]");
+        }
+        List<String> streamMap = new ArrayList<>();
+        List<String> outputs = new ArrayList<>();
+        for (int i = 0; i < rungs.size(); i++) {
+            HlsProperties.Rung rung = rungs.get(i);
+            // Never upscale a source that is smaller than the lowest rung
+            double scale = (double) Math.min(rung.getHeight(), source.shortSide()) / source.shortSide();
+            filter.append(";[s").append(i).append("]scale=")
+                    .append(even(source.width() * scale)).append(":").append(even(source.height() * scale))
+                    .append("[v").append(i).append("]");
+
+            int bitrate = rung.getVideoBitrateKbps();
+            outputs.addAll(List.of(
+                    "-map", "[v" + i + "]",
+                    "-c:v:" + i, "libx264",
+                    "-b:v:" + i, bitrate + "k",
+                    "-maxrate:v:" + i, (bitrate * 107 / 100) + "k",
+                    "-bufsize:v:" + i, (bitrate * 3 / 2) + "k"));
+            streamMap.add(source.hasAudio()
+                    ? "v:" + i + ",a:" + i + ",name:" + rung.getName()
+                    : "v:" + i + ",name:" + rung.getName());
+        }
+        if (source.hasAudio()) {
+            for (int i = 0; i < rungs.size(); i++) {
+                outputs.addAll(List.of(
+                        "-map", "0:a:0",
+                        "-c:a:" + i, "aac",
+                        "-b:a:" + i, rungs.get(i).getAudioBitrateKbps() + "k"));
+            }
+        }
+
+        List<String> command = new ArrayList<>(List.of(
+                "ffmpeg", "-y",
+                "-i", sourceUrl,
+                "-filter_complex", filter.toString()));
+        command.addAll(outputs);
+        command.addAll(List.of(
+                "-preset", "fast",
+                "-threads", String.valueOf(transcodeProperties.getFfmpegThreads()),
+                // Aligned keyframes on every segment boundary in every rendition
+                "-sc_threshold", "0",
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")",
+                "-f", "hls",
+                "-hls_time", String.valueOf(segmentSeconds),
+                "-hls_playlist_type", "vod",
+                // temp_file renames each segment into place once it is closed, so it can be uploaded right away
+                "-hls_flags", "independent_segments+temp_file",
+                "-hls_segment_filename", workDir.resolve("%v").resolve("seg_%05d.ts").toString(),
+                "-master_pl_name", MASTER_PLAYLIST,
+                "-var_stream_map", String.join(" ", streamMap),
+                workDir.resolve("%v").resolve(MEDIA_PLAYLIST).toString()));
+        return command;
+    }
+
+    /**
+     * Runs ffmpeg and uploads every segment as soon as ffmpeg closes it, so the upload overlaps the encode. Segments
+     * are written under a .tmp name and renamed when complete, a .ts file is final. Uploaded segments are deleted
+     * locally, except those of the rendition the progressive MP4 is remuxed from.
+     */
+    private List<CompletableFuture<Void>> runFfmpeg(List<String> command, String bucketName, String directory,
+                                                    Path workDir, Path keepDir) throws IOException, InterruptedException {
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        Process process = processBuilder.start();
+        Thread logger = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("[FFmpeg HLS] {}", line);
+                }
+            } catch (IOException e) {
+                log.debug("FFmpeg HLS log stream closed", e);
+            }
+        }, "ffmpeg-hls-log");
+        logger.setDaemon(true);
+        logger.start();
+
+        Set<Path> submitted = new HashSet<>();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        try {
+            long pollMillis = hlsProperties.getSegmentPollInterval().toMillis();
+            while (!process.waitFor(pollMillis, TimeUnit.MILLISECONDS)) {
+                submitClosedSegments(bucketName, directory, workDir, keepDir, submitted, uploads);
+                if (uploads.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    awaitUploads(uploads);
+                }
+            }
+            logger.join();
+            if (process.exitValue() != 0) {
+                throw new IOException("FFmpeg HLS packaging failed with exit code " + process.exitValue());
+            }
+            submitClosedSegments(bucketName, directory, workDir, keepDir, submitted, uploads);
+            return uploads;
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void submitClosedSegments(String bucketName, String directory, Path workDir, Path keepDir,
+                                      Set<Path> submitted, List<CompletableFuture<Void>> uploads) throws IOException {
+        List<Path> closed;
+        try (Stream<Path> walk = Files.walk(workDir, 2)) {
+            closed = walk.filter(file -> file.getFileName().toString().endsWith(SEGMENT_EXTENSION))
+                    .filter(submitted::add)
+                    .toList();
+        }
+        for (Path segment : closed) {
+            String objectName = directory + workDir.relativize(segment).toString().replace('\\', '/');
+            boolean keep = segment.getParent().equals(keepDir);
+            uploads.add(CompletableFuture.runAsync(() -> {
+                putObject(bucketName, objectName, segment, SEGMENT_CONTENT_TYPE);
+                if (!keep) {
+                    deleteQuietly(segment);
+                }
+            }, uploader));
+        }
+    }
+
+    private void awaitUploads(List<CompletableFuture<Void>> uploads) throws IOException {
+        try {
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IOException("HLS segment upload failed", e.getCause());
+        }
+    }
+
+    // Playlists reference every segment, so they go up once all segments are in place, the master last
+    private void uploadPlaylists(String bucketName, String directory, Path workDir) throws Exception {
+        Path masterFile = workDir.resolve(MASTER_PLAYLIST);
+        if (!Files.exists(masterFile)) {
+            throw new IOException("FFmpeg did not write a master playlist");
+        }
+        List<Path> mediaPlaylists;
+        try (Stream<Path> walk = Files.walk(workDir, 2)) {
+            mediaPlaylists = walk.filter(file -> file.getFileName().toString().equals(MEDIA_PLAYLIST)).toList();
+        }
+        for (Path playlist : mediaPlaylists) {
+            putObject(bucketName, directory + workDir.relativize(playlist).toString().replace('\\', '/'), playlist,
+                    PLAYLIST_CONTENT_TYPE);
+        }
+        putObject(bucketName, directory + MASTER_PLAYLIST, masterFile, PLAYLIST_CONTENT_TYPE);
+        log.info("Uploaded HLS package {}", directory);
+    }
+
+    // Stream copy of an already encoded rendition into a seekable MP4, no second encode
+    private void remux(Path mediaPlaylist, Path output) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(
+                "ffmpeg", "-y",
+                "-i", mediaPlaylist.toString(),
+                "-c", "copy",
+                "-bsf:a", "aac_adtstoasc",
+                "-movflags", "+faststart",
+                output.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException("FFmpeg MP4 remux failed with exit code " + exitCode);
+        }
+    }
+
+    private void putObject(String bucketName, String objectName, Path file, String contentType) {
+        try (InputStream stream = Files.newInputStream(file)) {
+            long size = Files.size(file);
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(stream, size, -1)
+                    .contentType(contentType)
+                    .build());
+            diskBytes.increment(size);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private HlsProperties.Rung progressiveRung(List<HlsProperties.Rung> rungs) {
+        // Rungs are sorted tallest first
+        return rungs.stream()
+                .filter(rung -> rung.getHeight() <= hlsProperties.getProgressiveHeight())
+                .findFirst()
+                .orElse(rungs.get(rungs.size() - 1));
+    }
+
+    private MediaProcessedEvent.Rendition toRendition(String streamInf, String uri, String directory) {
+        Matcher bandwidth = BANDWIDTH.matcher(streamInf);
+        Matcher resolution = RESOLUTION.matcher(streamInf);
+        boolean hasResolution = resolution.find();
+        return MediaProcessedEvent.Rendition.builder()
+                .name(uri.contains("/") ? uri.substring(0, uri.indexOf('/')) : uri)
+                .bandwidth(bandwidth.find() ? Long.parseLong(bandwidth.group(1)) : 0)
+                .width(hasResolution ? Integer.parseInt(resolution.group(1)) : 0)
+                .height(hasResolution ? Integer.parseInt(resolution.group(2)) : 0)
+                .playlistUrl(directory + uri)
+                .build();
+    }
+
+    private String packageDirectory(String rawObjectName) {
+        String baseName = rawObjectName.contains(".")
+                ? rawObjectName.substring(0, rawObjectName.lastIndexOf('.'))
+                : rawObjectName;
+        return hlsProperties.getPrefix() + baseName + "/";
+    }
+
+    private boolean objectExists(String bucketName, String objectName) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            return false;
+        } catch (Exception e) {
+            log.warn("Cannot check for HLS package {}", objectName, e);
+            return false;
+        }
+    }
+
+    private void deleteDirectory(Path directory) {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete temp file: {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to delete temp directory: {}", directory, e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp file: {}", file, e);
+        }
+    }
+
+    private static int even(double value) {
+        return Math.max(2, (int) Math.round(value / 2) * 2);
+    }
+
+    private record Source(int width, int height, boolean hasAudio) {
+        int shortSide() {
+            return Math.min(width, height);
+        }
+    }
+}
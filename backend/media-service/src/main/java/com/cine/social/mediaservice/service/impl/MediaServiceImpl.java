@@ -31,6 +31,8 @@ public class MediaServiceImpl implements MediaService {
 
     private final MinioProperty minioProperty;
 
+    private final HlsPackager hlsPackager;
+
     private static final String IMAGE_PREFIX = "img_";
     private static final String VIDEO_PREFIX = "raw_vid_";
     private static final String TYPE_IMAGE = "IMAGE";
@@ -104,6 +106,11 @@ public class MediaServiceImpl implements MediaService {
     @Override
     @SneakyThrows
     public void deleteFromMinIO(String objectName){
+        // A master playlist stands for its whole HLS package
+        if (hlsPackager.isMasterPlaylist(objectName)) {
+            hlsPackager.removePackage(minioProperty.getBucket(), objectName);
+            return;
+        }
         minioClient.removeObject(RemoveObjectArgs.builder()
                         .bucket(minioProperty.getBucket())
                         .object(objectName)
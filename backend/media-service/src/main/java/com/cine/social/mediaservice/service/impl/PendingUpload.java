@@ -0,0 +1,22 @@
+package com.cine.social.mediaservice.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Record of a presigned upload that the client has not confirmed yet, stored in the private MinIO bucket.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingUpload {
+    private String objectName;
+    private String userId;
+    private String type;
+    private String contentType;
+    private long size;
+    private long expiresAt;
+}
@@ -0,0 +1,37 @@
+package com.cine.social.mediaservice.service.impl;
+
+import com.cine.social.mediaservice.service.PresignedMediaService;
+import com.cine.social.mediaservice.service.ResumableUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingUploadSweeper {
+
+    private final PresignedMediaService presignedMediaService;
+    private final ResumableUploadService resumableUploadService;
+
+    // Deletes are idempotent, several instances sweeping the same records is harmless
+    @Scheduled(fixedDelayString = "${app.media.presign.sweep-interval-ms:300000}")
+    public void sweep() {
+        try {
+            presignedMediaService.sweepExpiredUploads();
+        } catch (Exception e) {
+            log.error("Pending upload sweep failed", e);
+        }
+    }
+
+    // Aborting a multipart upload twice only fails with NoSuchUpload, which the sweep tolerates
+    @Scheduled(fixedDelayString = "${app.media.upload.sweep-interval-ms:3600000}")
+    public void sweepResumable() {
+        try {
+            resumableUploadService.sweepAbandonedUploads();
+        } catch (Exception e) {
+            log.error("Resumable upload sweep failed", e);
+        }
+    }
+}
@@ -1,40 +1,46 @@
 package com.cine.social.mediaservice.service.impl;
 
 
-import com.cine.social.event.MediaProcessedEvent;
 import com.cine.social.event.MinioFileDeletionEvent;
 import com.cine.social.event.PostCreatedEvent;
 import com.cine.social.mediaservice.service.MediaService;
-import com.cine.social.mediaservice.service.VideoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
-    public class PostConsumerService {
+    public class PostConsumerService extends AbstractConsumerSeekAware {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final VideoService videoService;
+    private final TranscodeScheduler transcodeScheduler;
     private final MediaService mediaService;
 
-    @KafkaListener(topics = "post-created-topic", groupId = "media-group")
-    public void handlePostCreated(PostCreatedEvent event) {
+    @KafkaListener(id = TranscodeScheduler.LISTENER_ID, topics = "post-created-topic", groupId = "media-group",
+            containerFactory = "transcodeListenerContainerFactory")
+    public void handlePostCreated(PostCreatedEvent event,
+                                  @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                  @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                  @Header(KafkaHeaders.OFFSET) long offset,
+                                  Acknowledgment acknowledgment) {
         log.info("Received event for Post ID: {}", event.getPostId());
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        transcodeScheduler.submit(event, new TranscodeScheduler.RecordRef(topicPartition, offset, acknowledgment,
+                getSeekCallbackFor(topicPartition)));
+    }
 
-        try {
-            String processedUrl = videoService.processVideo(event.getResourceUrl());
-            log.info("Video processing DONE. New URL: {}", processedUrl);
-            sendEvent(event.getPostId(), "DONE", processedUrl);
-
-        } catch (Exception e) {
-            log.error("Video processing failed for Post ID: {}", event.getPostId(), e);
-            sendEvent(event.getPostId(), "FAILED", null);
-        }
-
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        super.onPartitionsRevoked(partitions);
+        transcodeScheduler.forget(partitions);
     }
 
     @KafkaListener(topics = "file-deletion-topic", groupId = "media-group")
@@ -48,13 +54,4 @@ import org.springframework.stereotype.Service;
         }
 
     }
-
-    private void sendEvent(String postId, String status, String url) {
-        MediaProcessedEvent resultEvent = MediaProcessedEvent.builder()
-                .postId(postId)
-                .status(status)
-                .processedUrl(url)
-                .build();
-        kafkaTemplate.send("media-processed-topic", resultEvent);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,331 @@
+package com.cine.social.mediaservice.service.impl;
+
+import com.cine.social.common.exception.AppException;
+import com.cine.social.common.exception.CommonErrorCode;
+import com.cine.social.common.utils.SecurityUtils;
+import com.cine.social.mediaservice.constant.MediaErrorCode;
+import com.cine.social.mediaservice.dto.request.PresignUploadRequest;
+import com.cine.social.mediaservice.dto.response.MediaResponse;
+import com.cine.social.mediaservice.dto.response.PresignedUrlResponse;
+import com.cine.social.mediaservice.property.HlsProperties;
+import com.cine.social.mediaservice.property.MinioProperty;
+import com.cine.social.mediaservice.property.PresignProperties;
+import com.cine.social.mediaservice.property.UploadProperties;
+import com.cine.social.mediaservice.service.PresignedMediaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Issues presigned MinIO URLs so media bytes travel between clients and the object store without passing through
+ * this service. A presigned PUT writes to a staging key in the private bucket, which nothing reads. Confirming checks
+ * the staged object and copies it server side to its public name, so whatever is PUT to the still valid URL afterwards
+ * never becomes visible. Unconfirmed uploads are swept after expiry.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresignedMediaServiceImpl implements PresignedMediaService {
+
+    private final MinioClient minioClient;
+    private final MinioProperty minioProperty;
+    private final PresignProperties presignProperties;
+    private final UploadProperties uploadProperties;
+    private final HlsProperties hlsProperties;
+    private final ObjectMapper objectMapper;
+
+    private static final String IMAGE_PREFIX = "img_";
+    private static final String VIDEO_PREFIX = "raw_vid_";
+    private static final String TYPE_IMAGE = "IMAGE";
+    private static final String TYPE_VIDEO = "VIDEO";
+    private static final String PENDING_SUFFIX = ".pending";
+    private static final Pattern UPLOADED_OBJECT = Pattern.compile("^(img_|raw_vid_)[0-9a-f-]{36}(\\.[A-Za-z0-9]{1,10})?$");
+    // Uploads and the transcoder output derived from them
+    private static final Pattern MEDIA_OBJECT = Pattern.compile("^(processed_)?(img_|raw_vid_)[0-9a-f-]{36}(\\.[A-Za-z0-9]{1,10})?$");
+    private static final Pattern HLS_FILE = Pattern.compile("^raw_vid_[0-9a-f-]{36}/([A-Za-z0-9_]+/)?[A-Za-z0-9_]+\\.(m3u8|ts)$");
+    private static final Pattern EXTENSION = Pattern.compile("^\\.[A-Za-z0-9]{1,10}$");
+
+    // Signed for the public endpoint, the host is part of the signature
+    private MinioClient presignClient;
+    private Cache<String, PresignedUrlResponse> downloadUrls;
+
+    @PostConstruct
+    public void init() {
+        String endpoint = StringUtils.hasText(minioProperty.getPublicUrl()) ? minioProperty.getPublicUrl() : minioProperty.getUrl();
+        // A fixed region keeps presigning local, otherwise the client asks the endpoint for its region first
+        presignClient = MinioClient.builder()
+                .endpoint(endpoint)
+                .region(minioProperty.getRegion())
+                .credentials(minioProperty.getAccessKey(), minioProperty.getSecretKey())
+                .build();
+        downloadUrls = Caffeine.newBuilder()
+                .maximumSize(presignProperties.getDownloadCacheMaxSize())
+                .expireAfterWrite(presignProperties.getDownloadExpiry().minus(presignProperties.getDownloadRefreshMargin()))
+                .build();
+    }
+
+    @Override
+    public PresignedUrlResponse presignUpload(PresignUploadRequest request) {
+        boolean image = TYPE_IMAGE.equals(request.getType());
+        if (!image && !TYPE_VIDEO.equals(request.getType())) {
+            throw new AppException(MediaErrorCode.INVALID_FILE);
+        }
+        if (request.getSize() <= 0) {
+            throw new AppException(MediaErrorCode.EMPTY_FILE);
+        }
+        String expectedTypePrefix = image ? "image/" : "video/";
+        if (Objects.isNull(request.getContentType()) || !request.getContentType().startsWith(expectedTypePrefix)) {
+            throw new AppException(MediaErrorCode.INVALID_FILE);
+        }
+        long maxSize = image ? presignProperties.getMaxImageSize().toBytes() : uploadProperties.getMaxVideoSize().toBytes();
+        if (request.getSize() > maxSize) {
+            throw new AppException(MediaErrorCode.FILE_TOO_LARGE);
+        }
+
+        String objectName = (image ? IMAGE_PREFIX : VIDEO_PREFIX) + UUID.randomUUID() + extensionOf(request.getFileName());
+        int expirySeconds = (int) presignProperties.getUploadExpiry().toSeconds();
+        long expiresAt = System.currentTimeMillis() + presignProperties.getUploadExpiry().toMillis();
+
+        savePending(PendingUpload.builder()
+                .objectName(objectName)
+                .userId(SecurityUtils.getCurrentUserId())
+                .type(request.getType())
+                .contentType(request.getContentType())
+                .size(request.getSize())
+                .expiresAt(expiresAt)
+                .build());
+
+        return PresignedUrlResponse.builder()
+                .objectName(objectName)
+                .url(presign(Method.PUT, minioProperty.getPrivateBucket(), stagingObject(objectName), expirySeconds))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Override
+    public MediaResponse confirmUpload(String objectName) {
+        if (!UPLOADED_OBJECT.matcher(objectName).matches()) {
+            throw new AppException(MediaErrorCode.INVALID_OBJECT_NAME);
+        }
+        PendingUpload pending = readPending(objectName);
+        if (Objects.isNull(pending)) {
+            throw new AppException(MediaErrorCode.UPLOAD_NOT_FOUND);
+        }
+        if (!pending.getUserId().equals(SecurityUtils.getCurrentUserId())) {
+            throw new AppException(CommonErrorCode.UNAUTHORIZED);
+        }
+
+        String staged = stagingObject(objectName);
+        StatObjectResponse stat;
+        try {
+            stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(minioProperty.getPrivateBucket())
+                    .object(staged)
+                    .build());
+        } catch (ErrorResponseException e) {
+            throw new AppException(MediaErrorCode.UPLOAD_INCOMPLETE);
+        } catch (Exception e) {
+            log.error("Cannot stat staged upload {}", objectName, e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+
+        // The PUT signature does not cover size or content type, so a mismatching object is discarded here
+        if (stat.size() != pending.getSize() || !pending.getContentType().equals(stat.contentType())) {
+            log.warn("Rejecting upload {}: expected {} bytes of {}, got {} bytes of {}", objectName,
+                    pending.getSize(), pending.getContentType(), stat.size(), stat.contentType());
+            removeQuietly(minioProperty.getPrivateBucket(), staged);
+            removeQuietly(minioProperty.getPrivateBucket(), pendingObject(objectName));
+            throw new AppException(MediaErrorCode.UPLOAD_MISMATCH);
+        }
+
+        try {
+            // Pinned to the checked ETag, a PUT racing the confirmation fails the copy instead of being published
+            minioClient.copyObject(CopyObjectArgs.builder()
+                    .bucket(minioProperty.getBucket())
+                    .object(objectName)
+                    .source(CopySource.builder()
+                            .bucket(minioProperty.getPrivateBucket())
+                            .object(staged)
+                            .matchETag(stat.etag())
+                            .build())
+                    .build());
+        } catch (ErrorResponseException e) {
+            throw new AppException(MediaErrorCode.UPLOAD_MISMATCH);
+        } catch (Exception e) {
+            log.error("Cannot publish staged upload {}", objectName, e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+        removeQuietly(minioProperty.getPrivateBucket(), staged);
+
+        removeQuietly(minioProperty.getPrivateBucket(), pendingObject(objectName));
+        log.info("Confirmed presigned upload {}", objectName);
+        return MediaResponse.builder()
+                .url(objectName)
+                .type(pending.getType())
+                .build();
+    }
+
+    @Override
+    public PresignedUrlResponse presignDownload(String objectName) {
+        validateReadable(objectName);
+        PresignedUrlResponse cached = downloadUrls.getIfPresent(objectName);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+        PresignedUrlResponse response = PresignedUrlResponse.builder()
+                .objectName(objectName)
+                .url(presign(Method.GET, minioProperty.getBucket(), objectName, (int) presignProperties.getDownloadExpiry().toSeconds()))
+                .expiresAt(System.currentTimeMillis() + presignProperties.getDownloadExpiry().toMillis())
+                .build();
+        downloadUrls.put(objectName, response);
+        return response;
+    }
+
+    @Override
+    public List<PresignedUrlResponse> presignDownloads(List<String> objectNames) {
+        return objectNames.stream()
+                .distinct()
+                .map(this::presignDownload)
+                .toList();
+    }
+
+    @Override
+    public void sweepExpiredUploads() {
+        long cutoff = System.currentTimeMillis() - presignProperties.getPendingGrace().toMillis();
+        Iterable<Result<Item>> records = minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(minioProperty.getPrivateBucket())
+                .prefix(presignProperties.getPendingPrefix())
+                .recursive(true)
+                .build());
+        int swept = 0;
+        for (Result<Item> result : records) {
+            try {
+                String recordName = result.get().objectName();
+                String objectName = recordName.substring(presignProperties.getPendingPrefix().length(),
+                        recordName.length() - PENDING_SUFFIX.length());
+                PendingUpload pending = readPending(objectName);
+                if (Objects.nonNull(pending) && pending.getExpiresAt() < cutoff) {
+                    removeQuietly(minioProperty.getPrivateBucket(), stagingObject(objectName));
+                    removeQuietly(minioProperty.getPrivateBucket(), recordName);
+                    swept++;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to inspect pending upload record", e);
+            }
+        }
+        if (swept > 0) {
+            log.info("Swept {} unconfirmed presigned uploads", swept);
+        }
+    }
+
+    private String presign(Method method, String bucket, String objectName, int expirySeconds) {
+        try {
+            return presignClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(method)
+                    .bucket(bucket)
+                    .object(objectName)
+                    .expiry(expirySeconds)
+                    .build());
+        } catch (Exception e) {
+            log.error("Cannot presign {} {}", method, objectName, e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+    }
+
+    // Only names this service gives to media are signed, never an arbitrary key of the bucket
+    private void validateReadable(String objectName) {
+        if (!StringUtils.hasText(objectName)) {
+            throw new AppException(MediaErrorCode.INVALID_OBJECT_NAME);
+        }
+        boolean media = MEDIA_OBJECT.matcher(objectName).matches()
+                || (objectName.startsWith(hlsProperties.getPrefix())
+                && HLS_FILE.matcher(objectName.substring(hlsProperties.getPrefix().length())).matches());
+        if (!media) {
+            throw new AppException(MediaErrorCode.INVALID_OBJECT_NAME);
+        }
+    }
+
+    private void savePending(PendingUpload pending) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pending);
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(minioProperty.getPrivateBucket())
+                    .object(pendingObject(pending.getObjectName()))
+                    .stream(new ByteArrayInputStream(json), json.length, -1)
+                    .contentType("application/json")
+                    .build());
+        } catch (Exception e) {
+            log.error("Cannot record pending upload {}", pending.getObjectName(), e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+    }
+
+    private PendingUpload readPending(String objectName) {
+        try (InputStream stream = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(minioProperty.getPrivateBucket())
+                .object(pendingObject(objectName))
+                .build())) {
+            return objectMapper.readValue(stream, PendingUpload.class);
+        } catch (ErrorResponseException e) {
+            return null;
+        } catch (Exception e) {
+            log.error("Cannot read pending upload {}", objectName, e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+    }
+
+    private void removeQuietly(String bucket, String objectName) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .build());
+        } catch (Exception e) {
+            log.warn("Failed to delete {}", objectName, e);
+        }
+    }
+
+    private String stagingObject(String objectName) {
+        return presignProperties.getStagingPrefix() + objectName;
+    }
+
+    private String pendingObject(String objectName) {
+        return presignProperties.getPendingPrefix() + objectName + PENDING_SUFFIX;
+    }
+
+    private String extensionOf(String fileName) {
+        if (Objects.nonNull(fileName) && fileName.contains(".")) {
+            String extension = fileName.substring(fileName.lastIndexOf("."));
+            if (EXTENSION.matcher(extension).matches()) {
+                return extension;
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,332 @@
+package com.cine.social.mediaservice.service.impl;
+
+import com.cine.social.common.exception.AppException;
+import com.cine.social.common.exception.CommonErrorCode;
+import com.cine.social.common.utils.SecurityUtils;
+import com.cine.social.mediaservice.constant.MediaErrorCode;
+import com.cine.social.mediaservice.dto.request.UploadInitRequest;
+import com.cine.social.mediaservice.dto.response.MediaResponse;
+import com.cine.social.mediaservice.dto.response.UploadPartResponse;
+import com.cine.social.mediaservice.dto.response.UploadSessionResponse;
+import com.cine.social.mediaservice.property.MinioProperty;
+import com.cine.social.mediaservice.property.UploadProperties;
+import com.cine.social.mediaservice.service.ResumableUploadService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Item;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resumable video upload mapped one to one onto a MinIO multipart upload. Each part request body is streamed straight
+ * into the matching MinIO part, a failed part is retried on its own and the parts are stitched together by MinIO on
+ * completion, so the service never spools the video to local disk.
+ * <p>
+ * A session that is neither completed nor aborted within app.media.upload.session-ttl is swept: its multipart upload
+ * is aborted, which frees the stored parts, and its session JSON is deleted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadServiceImpl implements ResumableUploadService {
+
+    private final MinioAsyncClient minioAsyncClient;
+    private final MinioClient minioClient;
+    private final MinioProperty minioProperty;
+    private final UploadProperties uploadProperties;
+    private final ObjectMapper objectMapper;
+
+    private static final String VIDEO_PREFIX = "raw_vid_";
+    private static final String TYPE_VIDEO = "VIDEO";
+    private static final String SESSION_SUFFIX = ".json";
+    private static final int LIST_PARTS_PAGE_SIZE = 1000;
+    private static final int MAX_PARTS = 10000;
+    private static final Set<String> CHECKSUM_ERRORS = Set.of("BadDigest", "InvalidDigest");
+
+    @Override
+    public UploadSessionResponse initVideoUpload(UploadInitRequest request) {
+        if (request.getSize() <= 0) {
+            throw new AppException(MediaErrorCode.EMPTY_FILE);
+        }
+        if (Objects.isNull(request.getContentType()) || !request.getContentType().startsWith("video/")) {
+            throw new AppException(MediaErrorCode.INVALID_FILE);
+        }
+        if (request.getSize() > uploadProperties.getMaxVideoSize().toBytes()) {
+            throw new AppException(MediaErrorCode.FILE_TOO_LARGE);
+        }
+
+        long partSize = uploadProperties.getPartSize().toBytes();
+        int partCount = (int) ((request.getSize() + partSize - 1) / partSize);
+        if (partCount > MAX_PARTS) {
+            throw new AppException(MediaErrorCode.FILE_TOO_LARGE);
+        }
+
+        String objectName = VIDEO_PREFIX + UUID.randomUUID() + extensionOf(request.getFileName());
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("Content-Type", request.getContentType());
+        String multipartUploadId = await(() -> minioAsyncClient.createMultipartUploadAsync(
+                minioProperty.getBucket(), null, objectName, headers, null)).result().uploadId();
+
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(SecurityUtils.getCurrentUserId())
+                .objectName(objectName)
+                .multipartUploadId(multipartUploadId)
+                .contentType(request.getContentType())
+                .size(request.getSize())
+                .partSize(partSize)
+                .partCount(partCount)
+                .createdAt(System.currentTimeMillis())
+                .build();
+        saveSession(session);
+        log.info("Started resumable upload {} for {} in {} parts", session.getId(), objectName, partCount);
+
+        return toResponse(session, List.of());
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(String uploadId, int partNumber, InputStream body, long contentLength, String contentMd5) {
+        UploadSession session = loadOwnedSession(uploadId);
+        if (partNumber < 1 || partNumber > session.getPartCount() || contentLength != session.expectedPartSize(partNumber)) {
+            throw new AppException(MediaErrorCode.INVALID_PART);
+        }
+
+        // MinIO recomputes the MD5 of what it received and rejects the part on mismatch
+        Multimap<String, String> headers = HashMultimap.create();
+        if (StringUtils.hasText(contentMd5)) {
+            headers.put("Content-MD5", contentMd5);
+        }
+        String etag = await(() -> minioAsyncClient.uploadPartAsync(minioProperty.getBucket(), null, session.getObjectName(),
+                body, contentLength, session.getMultipartUploadId(), partNumber, headers, null)).etag();
+
+        return UploadPartResponse.builder()
+                .partNumber(partNumber)
+                .etag(etag)
+                .size(contentLength)
+                .build();
+    }
+
+    @Override
+    public UploadSessionResponse getUpload(String uploadId) {
+        UploadSession session = loadOwnedSession(uploadId);
+        List<UploadPartResponse> parts = listParts(session).stream()
+                .map(part -> UploadPartResponse.builder()
+                        .partNumber(part.partNumber())
+                        .etag(part.etag())
+                        .size(part.partSize())
+                        .build())
+                .toList();
+        return toResponse(session, parts);
+    }
+
+    @Override
+    public MediaResponse completeUpload(String uploadId) {
+        UploadSession session = loadOwnedSession(uploadId);
+        List<Part> parts = listParts(session);
+        if (parts.size() != session.getPartCount()) {
+            throw new AppException(MediaErrorCode.UPLOAD_INCOMPLETE);
+        }
+        for (Part part : parts) {
+            if (part.partSize() != session.expectedPartSize(part.partNumber())) {
+                throw new AppException(MediaErrorCode.INVALID_PART);
+            }
+        }
+
+        Part[] completed = parts.stream()
+                .map(part -> new Part(part.partNumber(), part.etag()))
+                .toArray(Part[]::new);
+        await(() -> minioAsyncClient.completeMultipartUploadAsync(minioProperty.getBucket(), null, session.getObjectName(),
+                session.getMultipartUploadId(), completed, null, null));
+        removeSession(session);
+        log.info("Completed resumable upload {} as {}", session.getId(), session.getObjectName());
+
+        return MediaResponse.builder()
+                .url(session.getObjectName())
+                .type(TYPE_VIDEO)
+                .build();
+    }
+
+    @Override
+    public void abortUpload(String uploadId) {
+        UploadSession session = loadOwnedSession(uploadId);
+        await(() -> minioAsyncClient.abortMultipartUploadAsync(minioProperty.getBucket(), null, session.getObjectName(),
+                session.getMultipartUploadId(), null, null));
+        removeSession(session);
+    }
+
+    @Override
+    public void sweepAbandonedUploads() {
+        long cutoff = System.currentTimeMillis() - uploadProperties.getSessionTtl().toMillis();
+        Iterable<Result<Item>> sessions = minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(minioProperty.getPrivateBucket())
+                .prefix(uploadProperties.getSessionPrefix())
+                .recursive(true)
+                .build());
+        int swept = 0;
+        for (Result<Item> result : sessions) {
+            try {
+                String sessionName = result.get().objectName();
+                UploadSession session = readSession(sessionName.substring(uploadProperties.getSessionPrefix().length(),
+                        sessionName.length() - SESSION_SUFFIX.length()));
+                if (session.getCreatedAt() >= cutoff) {
+                    continue;
+                }
+                try {
+                    await(() -> minioAsyncClient.abortMultipartUploadAsync(minioProperty.getBucket(), null,
+                            session.getObjectName(), session.getMultipartUploadId(), null, null));
+                } catch (AppException e) {
+                    // Already completed or aborted, only the session JSON was left behind
+                    if (e.getErrorCode() != MediaErrorCode.UPLOAD_NOT_FOUND) {
+                        throw e;
+                    }
+                }
+                removeSession(session);
+                swept++;
+            } catch (Exception e) {
+                log.warn("Failed to sweep resumable upload session", e);
+            }
+        }
+        if (swept > 0) {
+            log.info("Swept {} abandoned resumable uploads", swept);
+        }
+    }
+
+    private List<Part> listParts(UploadSession session) {
+        List<Part> parts = new ArrayList<>();
+        int marker = 0;
+        ListPartsResult page;
+        do {
+            int partNumberMarker = marker;
+            page = await(() -> minioAsyncClient.listPartsAsync(minioProperty.getBucket(), null, session.getObjectName(),
+                    LIST_PARTS_PAGE_SIZE, partNumberMarker, session.getMultipartUploadId(), null, null)).result();
+            parts.addAll(page.partList());
+            marker = page.nextPartNumberMarker();
+        } while (page.isTruncated());
+        return parts;
+    }
+
+    private UploadSession loadOwnedSession(String uploadId) {
+        try {
+            UUID.fromString(uploadId);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(MediaErrorCode.UPLOAD_NOT_FOUND);
+        }
+        UploadSession session = readSession(uploadId);
+        if (!session.getUserId().equals(SecurityUtils.getCurrentUserId())) {
+            throw new AppException(CommonErrorCode.UNAUTHORIZED);
+        }
+        return session;
+    }
+
+    private UploadSession readSession(String uploadId) {
+        try (InputStream stream = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(minioProperty.getPrivateBucket())
+                .object(sessionObject(uploadId))
+                .build())) {
+            return objectMapper.readValue(stream, UploadSession.class);
+        } catch (ErrorResponseException e) {
+            throw new AppException(MediaErrorCode.UPLOAD_NOT_FOUND);
+        } catch (Exception e) {
+            log.error("Cannot read upload session {}", uploadId, e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+    }
+
+    private void saveSession(UploadSession session) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(session);
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(minioProperty.getPrivateBucket())
+                    .object(sessionObject(session.getId()))
+                    .stream(new ByteArrayInputStream(json), json.length, -1)
+                    .contentType("application/json")
+                    .build());
+        } catch (Exception e) {
+            log.error("Cannot store upload session {}", session.getId(), e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+    }
+
+    private void removeSession(UploadSession session) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(minioProperty.getPrivateBucket())
+                    .object(sessionObject(session.getId()))
+                    .build());
+        } catch (Exception e) {
+            log.warn("Failed to delete upload session {}", session.getId(), e);
+        }
+    }
+
+    private String sessionObject(String uploadId) {
+        return uploadProperties.getSessionPrefix() + uploadId + SESSION_SUFFIX;
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session, List<UploadPartResponse> uploadedParts) {
+        return UploadSessionResponse.builder()
+                .uploadId(session.getId())
+                .objectName(session.getObjectName())
+                .size(session.getSize())
+                .partSize(session.getPartSize())
+                .partCount(session.getPartCount())
+                .uploadedParts(uploadedParts)
+                .build();
+    }
+
+    private String extensionOf(String fileName) {
+        if (Objects.nonNull(fileName) && fileName.contains(".")) {
+            return fileName.substring(fileName.lastIndexOf("."));
+        }
+        return "";
+    }
+
+    private <T> T await(MinioCall<T> call) {
+        try {
+            return call.execute().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof ErrorResponseException error && CHECKSUM_ERRORS.contains(error.errorResponse().code())) {
+                throw new AppException(MediaErrorCode.PART_CHECKSUM_MISMATCH);
+            }
+            if (e.getCause() instanceof ErrorResponseException error && "NoSuchUpload".equals(error.errorResponse().code())) {
+                throw new AppException(MediaErrorCode.UPLOAD_NOT_FOUND);
+            }
+            log.error("MinIO multipart call failed", e.getCause());
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        } catch (Exception e) {
+            log.error("MinIO multipart call failed", e);
+            throw new AppException(MediaErrorCode.UPLOAD_FAILED);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MinioCall<T> {
+        CompletableFuture<T> execute() throws Exception;
+    }
+}
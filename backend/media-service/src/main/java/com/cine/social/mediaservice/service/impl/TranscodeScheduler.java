@@ -0,0 +1,247 @@
+package com.cine.social.mediaservice.service.impl;
+
+import com.cine.social.event.MediaProcessedEvent;
+import com.cine.social.event.PostCreatedEvent;
+import com.cine.social.mediaservice.dto.ProcessedVideo;
+import com.cine.social.mediaservice.property.HlsProperties;
+import com.cine.social.mediaservice.property.TranscodeProperties;
+import com.cine.social.mediaservice.service.VideoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs video transcoding on a dedicated worker pool instead of the Kafka listener thread. The listener is paused
+ * while the queue is full. Jobs finish out of order, so completed offsets are tracked per partition and only the
+ * contiguous prefix is acknowledged: a crash redelivers every unfinished job and long videos never hold up polling.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TranscodeScheduler {
+    public final static String LISTENER_ID = "media-transcode";
+    private final static String MEDIA_PROCESSED_TOPIC = "media-processed-topic";
+
+    private final VideoService videoService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final TranscodeProperties properties;
+    private final HlsProperties hlsProperties;
+    private final MeterRegistry meterRegistry;
+
+    // postId -> job being transcoded, a redelivered duplicate attaches its record instead of running ffmpeg again
+    private final Map<String, Job> inFlight = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsets> offsets = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private Counter duplicates;
+
+    @PostConstruct
+    public void start() {
+        int workers = properties.resolveWorkers(hlsProperties.encodersPerJob());
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "media-transcode");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("media.transcode.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("media.transcode.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        duplicates = Counter.builder("media.transcode.duplicates").register(meterRegistry);
+        log.info("Transcoding with {} workers, {} encoders each", workers, hlsProperties.encodersPerJob());
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Unfinished jobs are not acknowledged and will be redelivered to another instance
+        executor.shutdownNow();
+    }
+
+    public void submit(PostCreatedEvent event, RecordRef record) {
+        PartitionOffsets partitionOffsets = offsets.computeIfAbsent(record.partition(), tp -> new PartitionOffsets());
+        if (!partitionOffsets.track(record.offset(), record.acknowledgment())) {
+            return;
+        }
+
+        boolean[] created = {false};
+        Job job = inFlight.compute(event.getPostId(), (postId, current) -> {
+            if (Objects.isNull(current)) {
+                created[0] = true;
+                return new Job(record);
+            }
+            current.records.add(record);
+            return current;
+        });
+        if (!created[0]) {
+            // Completed together with the running job, so its offset is never committed before the work is done
+            log.info("Post {} is already being transcoded, attaching duplicate", event.getPostId());
+            duplicates.increment();
+            return;
+        }
+        executor.execute(() -> run(event, job));
+        if (executor.getQueue().size() >= properties.getQueueCapacity()) {
+            pauseListener();
+        }
+    }
+
+    /**
+     * Drops the offsets of partitions this consumer no longer owns, their jobs are redelivered to the new owner.
+     */
+    public void forget(Collection<TopicPartition> partitions) {
+        partitions.forEach(offsets::remove);
+    }
+
+    private void run(PostCreatedEvent event, Job job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "DONE";
+        boolean published = false;
+        try {
+            ProcessedVideo processed;
+            try {
+                processed = videoService.processVideo(event.getResourceUrl());
+                log.info("Video processing DONE for Post ID: {}. New URL: {}, HLS: {}", event.getPostId(),
+                        processed.getProcessedUrl(), processed.getMasterPlaylistUrl());
+            } catch (Exception e) {
+                outcome = "FAILED";
+                processed = null;
+                log.error("Video processing failed for Post ID: {}", event.getPostId(), e);
+            }
+            sendResult(event.getPostId(), outcome, processed);
+            published = true;
+        } catch (Exception e) {
+            outcome = "UNPUBLISHED";
+            log.error("Failed to publish media result for Post ID: {}, redelivering", event.getPostId(), e);
+        } finally {
+            sample.stop(Timer.builder("media.transcode.duration").tag("outcome", outcome).register(meterRegistry));
+            // After the removal no duplicate can attach to this job any more
+            inFlight.remove(event.getPostId(), job);
+            for (RecordRef record : job.records) {
+                if (published) {
+                    complete(record);
+                } else {
+                    rewind(record);
+                }
+            }
+            if (executor.getQueue().size() < properties.getQueueCapacity()) {
+                resumeListener();
+            }
+        }
+    }
+
+    private void sendResult(String postId, String status, ProcessedVideo processed) throws Exception {
+        MediaProcessedEvent.MediaProcessedEventBuilder resultEvent = MediaProcessedEvent.builder()
+                .postId(postId)
+                .status(status);
+        if (Objects.nonNull(processed)) {
+            resultEvent.processedUrl(processed.getProcessedUrl())
+                    .masterPlaylistUrl(processed.getMasterPlaylistUrl())
+                    .renditions(processed.getRenditions());
+        }
+        // Wait for the broker so the job's offset is never committed ahead of its result
+        kafkaTemplate.send(MEDIA_PROCESSED_TOPIC, resultEvent.build()).get(30, TimeUnit.SECONDS);
+    }
+
+    private void complete(RecordRef record) {
+        PartitionOffsets partitionOffsets = offsets.get(record.partition());
+        if (Objects.nonNull(partitionOffsets)) {
+            partitionOffsets.complete(record.offset());
+        }
+    }
+
+    // The result never reached the broker, so the record is consumed again instead of being acknowledged
+    private void rewind(RecordRef record) {
+        PartitionOffsets partitionOffsets = offsets.get(record.partition());
+        if (Objects.nonNull(partitionOffsets) && partitionOffsets.rewind(record.offset())) {
+            record.seekCallback().seek(record.partition().topic(), record.partition().partition(), record.offset());
+        }
+    }
+
+    private void pauseListener() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (Objects.nonNull(container) && !container.isPauseRequested()) {
+            log.info("Transcode queue full, pausing intake");
+            container.pause();
+        }
+    }
+
+    private void resumeListener() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (Objects.nonNull(container) && container.isPauseRequested()) {
+            container.resume();
+        }
+    }
+
+    /**
+     * Position of one consumed record, with what is needed to acknowledge it or consume it again.
+     */
+    public record RecordRef(TopicPartition partition, long offset, Acknowledgment acknowledgment,
+                            ConsumerSeekAware.ConsumerSeekCallback seekCallback) {
+    }
+
+    private static class Job {
+        private final List<RecordRef> records = new ArrayList<>();
+
+        private Job(RecordRef record) {
+            records.add(record);
+        }
+    }
+
+    /**
+     * Offsets received on one partition that are not committed yet. Acknowledging a record commits everything before
+     * it, so only the highest record of the finished prefix is ever acknowledged.
+     */
+    private static class PartitionOffsets {
+        private final TreeMap<Long, Acknowledgment> pending = new TreeMap<>();
+        private final TreeSet<Long> done = new TreeSet<>();
+
+        synchronized boolean track(long offset, Acknowledgment acknowledgment) {
+            return Objects.isNull(pending.putIfAbsent(offset, acknowledgment));
+        }
+
+        synchronized void complete(long offset) {
+            if (!pending.containsKey(offset)) {
+                return;
+            }
+            done.add(offset);
+            Acknowledgment last = null;
+            while (!pending.isEmpty() && done.remove(pending.firstKey())) {
+                last = pending.pollFirstEntry().getValue();
+            }
+            if (Objects.nonNull(last)) {
+                last.acknowledge();
+            }
+        }
+
+        // Everything from the offset on is consumed again, so none of it may be acknowledged any more
+        synchronized boolean rewind(long offset) {
+            if (!pending.containsKey(offset)) {
+                return false;
+            }
+            pending.tailMap(offset, true).clear();
+            done.tailSet(offset, true).clear();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cine.social.mediaservice.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of one resumable upload, stored in the private MinIO bucket so any media-service instance can serve its parts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+    private String id;
+    private String userId;
+    private String objectName;
+    private String multipartUploadId;
+    private String contentType;
+    private long size;
+    private long partSize;
+    private int partCount;
+    private long createdAt;
+
+    long expectedPartSize(int partNumber) {
+        return partNumber < partCount ? partSize : size - partSize * (partCount - 1);
+    }
+}
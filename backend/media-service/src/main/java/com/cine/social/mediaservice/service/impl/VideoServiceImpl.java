@@ -1,11 +1,20 @@
 package com.cine.social.mediaservice.service.impl;
 
+import com.cine.social.mediaservice.dto.ProcessedVideo;
+import com.cine.social.mediaservice.property.HlsProperties;
 import com.cine.social.mediaservice.property.MinioProperty;
+import com.cine.social.mediaservice.property.TranscodeProperties;
 import com.cine.social.mediaservice.service.VideoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.minio.GetObjectArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,9 +25,16 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
@@ -27,28 +43,118 @@ public class VideoServiceImpl implements VideoService {
 
     private final MinioClient minioClient;
     private final MinioProperty minioProperty;
+    private final TranscodeProperties transcodeProperties;
+    private final MeterRegistry meterRegistry;
+    private final HlsPackager hlsPackager;
+    private final HlsProperties hlsProperties;
 
     private static final String VIDEO_CONTENT_TYPE = "video/mp4";
     private static final String VIDEO_EXTENSION = ".mp4";
     private static final String TEMP_FILE_PREFIX_RAW = "raw_";
     private static final String TEMP_FILE_PREFIX_PROCESSED = "processed_";
+    private static final String PIPE_INPUT = "pipe:0";
+    private static final String PIPE_OUTPUT = "pipe:1";
+    private static final String MODE_STREAMING = "streaming";
+    private static final String MODE_FILE = "file";
+    private static final String MODE_FALLBACK = "fallback";
+    private static final int BOX_HEADER_SIZE = 8;
+    private static final String BOX_FTYP = "ftyp";
+    private static final String BOX_MOOV = "moov";
+    private static final String BOX_MDAT = "mdat";
+
+    private Counter diskBytes;
+
+    @PostConstruct
+    public void initMetrics() {
+        // Bytes spooled to local disk, zero for jobs that took the streaming path
+        diskBytes = Counter.builder("media.transcode.disk.bytes").baseUnit("bytes").register(meterRegistry);
+    }
 
     @Override
-    public String processVideo(String originalFileName) {
-        Path tempInput = null;
-        Path tempOutput = null;
+    public ProcessedVideo processVideo(String originalFileName) {
         String bucketName = minioProperty.getBucket();
 
+        String newFileName = TEMP_FILE_PREFIX_PROCESSED + originalFileName;
+
+        try {
+            ProcessedVideo.ProcessedVideoBuilder result = ProcessedVideo.builder().processedUrl(newFileName);
+            // The ladder run also yields the MP4, the standalone encode only runs without HLS or when packaging failed
+            if (hlsProperties.isEnabled()) {
+                packageHls(bucketName, originalFileName, newFileName, result);
+            }
+
+            // A redelivered job whose output already exists only finishes the remaining steps
+            if (objectExists(bucketName, newFileName)) {
+                log.info("Processed video {} already exists, skipping transcode", newFileName);
+            } else {
+                transcodeMp4(bucketName, originalFileName, newFileName);
+            }
+
+            // 5. [UX Optimization] Xóa file Raw gốc để tiết kiệm dung lượng
+            log.info("Cleaning up raw file from MinIO: {}", originalFileName);
+            removeMinioObject(bucketName, originalFileName);
+
+            return result.build();
+
+        } catch (Exception e) {
+            log.error("Error processing video: {}", originalFileName, e);
+            throw new RuntimeException("Video processing failed", e);
+        }
+    }
+
+    private void transcodeMp4(String bucketName, String originalFileName, String newFileName) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String mode = MODE_FILE;
+        try {
+            if (transcodeProperties.isStreaming() && isStreamable(bucketName, originalFileName)) {
+                try {
+                    transcodeStreaming(bucketName, originalFileName, newFileName);
+                    mode = MODE_STREAMING;
+                } catch (Exception e) {
+                    // The probe only sees the head of the file, anything ffmpeg could not read from a pipe is retried from disk
+                    log.warn("Streaming transcode failed for {}, falling back to temp files", originalFileName, e);
+                    removeMinioObject(bucketName, newFileName);
+                    transcodeWithTempFiles(bucketName, originalFileName, newFileName);
+                    mode = MODE_FALLBACK;
+                }
+            } else {
+                transcodeWithTempFiles(bucketName, originalFileName, newFileName);
+            }
+        } finally {
+            sample.stop(Timer.builder("media.transcode.pipeline").tag("mode", mode).register(meterRegistry));
+        }
+    }
+
+    // The MP4 stays the playback fallback, a failed ladder publishes the post without HLS instead of failing it
+    private void packageHls(String bucketName, String originalFileName, String newFileName,
+                            ProcessedVideo.ProcessedVideoBuilder result) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "DONE";
+        try {
+            String masterPlaylist = hlsPackager.packageVideo(bucketName, originalFileName, newFileName);
+            result.masterPlaylistUrl(masterPlaylist)
+                    .renditions(hlsPackager.readRenditions(bucketName, masterPlaylist));
+        } catch (Exception e) {
+            outcome = "FAILED";
+            log.warn("HLS packaging failed for {}, publishing MP4 only", originalFileName, e);
+        } finally {
+            sample.stop(Timer.builder("media.transcode.hls").tag("outcome", outcome).register(meterRegistry));
+        }
+    }
+
+    private void transcodeWithTempFiles(String bucketName, String originalFileName, String newFileName) throws Exception {
+        Path tempInput = null;
+        Path tempOutput = null;
         try {
             log.info("Downloading raw video: {}", originalFileName);
-            
+
             // 1. Download file từ MinIO (Sử dụng try-with-resources để đảm bảo đóng Stream an toàn)
             try (InputStream stream = minioClient.getObject(
                     GetObjectArgs.builder()
                             .bucket(bucketName)
                             .object(originalFileName)
                             .build())) {
-                
+
                 tempInput = Files.createTempFile(TEMP_FILE_PREFIX_RAW, VIDEO_EXTENSION);
                 Files.copy(stream, tempInput, StandardCopyOption.REPLACE_EXISTING);
             }
@@ -59,9 +165,9 @@ public class VideoServiceImpl implements VideoService {
             // 3. Gọi FFmpeg để nén video
             log.info("Starting FFmpeg compression...");
             compressVideo(tempInput.toFile(), tempOutput.toFile());
+            diskBytes.increment(Files.size(tempInput) + Files.size(tempOutput));
 
             // 4. Upload file đã nén lên MinIO
-            String newFileName = TEMP_FILE_PREFIX_PROCESSED + originalFileName;
             log.info("Uploading processed video: {}", newFileName);
 
             try (InputStream uploadStream = new FileInputStream(tempOutput.toFile())) {
@@ -73,20 +179,139 @@ public class VideoServiceImpl implements VideoService {
                                 .contentType(VIDEO_CONTENT_TYPE)
                                 .build());
             }
+        } finally {
+            // 6. Dọn dẹp file rác trên ổ cứng Local
+            deleteTempFile(tempInput);
+            deleteTempFile(tempOutput);
+        }
+    }
 
-            // 5. [UX Optimization] Xóa file Raw gốc để tiết kiệm dung lượng
-            log.info("Cleaning up raw file from MinIO: {}", originalFileName);
-            removeMinioObject(bucketName, originalFileName);
+    /**
+     * Feeds the raw object into ffmpeg's stdin and uploads its fragmented MP4 stdout as a multipart object of unknown
+     * size, so the video never touches local disk. ffmpeg exiting non zero fails the job after the upload, the caller
+     * removes the partial output.
+     */
+    private void transcodeStreaming(String bucketName, String originalFileName, String newFileName) throws Exception {
+        log.info("Streaming transcode of {} into {}", originalFileName, newFileName);
+        Process process = new ProcessBuilder(ffmpegCommand(PIPE_INPUT, PIPE_OUTPUT, true)).start();
+        AtomicReference<Exception> feedError = new AtomicReference<>();
 
-            return newFileName;
+        Thread feeder = startDaemon("ffmpeg-feed", () -> {
+            try (InputStream source = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(originalFileName)
+                    .build());
+                 OutputStream stdin = process.getOutputStream()) {
+                source.transferTo(stdin);
+            } catch (Exception e) {
+                feedError.set(e);
+            }
+        });
+        // stderr is drained on its own thread, stdout is consumed by the upload below
+        Thread logger = startDaemon("ffmpeg-log", () -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("[FFmpeg] {}", line);
+                }
+            } catch (IOException e) {
+                log.debug("FFmpeg log stream closed", e);
+            }
+        });
 
+        try (InputStream stdout = process.getInputStream()) {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(newFileName)
+                    .stream(stdout, -1, transcodeProperties.getUploadPartSize().toBytes())
+                    .contentType(VIDEO_CONTENT_TYPE)
+                    .build());
         } catch (Exception e) {
-            log.error("Error processing video: {}", originalFileName, e);
-            throw new RuntimeException("Video processing failed", e);
+            process.destroyForcibly();
+            throw e;
         } finally {
-            // 6. Dọn dẹp file rác trên ổ cứng Local
-            deleteTempFile(tempInput);
-            deleteTempFile(tempOutput);
+            int exitCode = process.waitFor();
+            feeder.join();
+            logger.join();
+            if (exitCode != 0) {
+                throw new IOException("FFmpeg failed with exit code " + exitCode, feedError.get());
+            }
+        }
+        // ffmpeg may stop reading early on a broken input and still exit cleanly, a short read is a failure too
+        if (Objects.nonNull(feedError.get())) {
+            throw new IOException("Raw video could not be streamed to FFmpeg", feedError.get());
+        }
+    }
+
+    /**
+     * Reads the head of the raw object and walks the top level MP4 boxes. A moov box that comes after mdat can only
+     * be reached by seeking, which a pipe cannot do, so those files take the temp-file path. Non MP4 containers are
+     * streamed and fall back on failure.
+     */
+    private boolean isStreamable(String bucketName, String objectName) {
+        byte[] head;
+        try (InputStream stream = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(0L)
+                .length(transcodeProperties.getProbeSize().toBytes())
+                .build())) {
+            head = stream.readAllBytes();
+        } catch (Exception e) {
+            log.warn("Cannot probe {}, using temp files", objectName, e);
+            return false;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(head);
+        long offset = 0;
+        boolean first = true;
+        while (offset + BOX_HEADER_SIZE <= head.length) {
+            long size = buffer.getInt((int) offset) & 0xFFFFFFFFL;
+            String type = new String(head, (int) offset + 4, 4, StandardCharsets.US_ASCII);
+            if (first && !BOX_FTYP.equals(type)) {
+                return true;
+            }
+            first = false;
+            if (BOX_MOOV.equals(type)) {
+                return true;
+            }
+            if (BOX_MDAT.equals(type)) {
+                return false;
+            }
+            if (size == 1) {
+                if (offset + 16 > head.length) {
+                    break;
+                }
+                size = buffer.getLong((int) offset + 8);
+            }
+            if (size < BOX_HEADER_SIZE) {
+                break;
+            }
+            offset += size;
+        }
+        // moov not found within the probe window, seeking cannot be ruled out
+        return false;
+    }
+
+    private Thread startDaemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private boolean objectExists(String bucketName, String objectName) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            return false;
+        } catch (Exception e) {
+            log.warn("Cannot check for processed video {}", objectName, e);
+            return false;
         }
     }
 
@@ -118,13 +343,7 @@ public class VideoServiceImpl implements VideoService {
     private void compressVideo(File input, File output) throws IOException, InterruptedException {
         // Lệnh FFmpeg: Nén về chuẩn H.264, CRF 28 (giảm dung lượng tốt mà giữ chất lượng ổn)
         ProcessBuilder processBuilder = new ProcessBuilder(
-                "ffmpeg", "-y",             // -y: Overwrite output file
-                "-i", input.getAbsolutePath(),
-                "-vcodec", "libx264",
-                "-crf", "28",               // CRF càng cao càng nhẹ (và xấu). 28 là mức tối ưu mobile.
-                "-preset", "fast",          // Nén nhanh
-                output.getAbsolutePath()
-        );
+                ffmpegCommand(input.getAbsolutePath(), output.getAbsolutePath(), false));
 
         // KHÔNG dùng inheritIO() ở production để tránh spam log
         // processBuilder.inheritIO(); 
@@ -146,4 +365,20 @@ public class VideoServiceImpl implements VideoService {
             throw new IOException("FFmpeg failed with exit code " + exitCode);
         }
     }
+
+    private List<String> ffmpegCommand(String input, String output, boolean fragmented) {
+        List<String> command = new ArrayList<>(List.of(
+                "ffmpeg", "-y",             // -y: Overwrite output file
+                "-i", input,
+                "-vcodec", "libx264",
+                "-crf", "28",               // CRF càng cao càng nhẹ (và xấu). 28 là mức tối ưu mobile.
+                "-preset", "fast",          // Nén nhanh
+                "-threads", String.valueOf(transcodeProperties.getFfmpegThreads())));
+        if (fragmented) {
+            // A plain MP4 needs to seek back to write moov, fragments let ffmpeg write to a pipe front to back
+            command.addAll(List.of("-movflags", "frag_keyframe+empty_moov+default_base_moof", "-f", "mp4"));
+        }
+        command.add(output);
+        return command;
+    }
 }
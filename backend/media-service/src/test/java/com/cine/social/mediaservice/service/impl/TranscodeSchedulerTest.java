@@ -0,0 +1,127 @@
+package com.cine.social.mediaservice.service.impl;
+
+import com.cine.social.event.PostCreatedEvent;
+import com.cine.social.mediaservice.dto.ProcessedVideo;
+import com.cine.social.mediaservice.property.HlsProperties;
+import com.cine.social.mediaservice.property.TranscodeProperties;
+import com.cine.social.mediaservice.service.VideoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TranscodeSchedulerTest {
+    private static final TopicPartition PARTITION = new TopicPartition("post-created-topic", 0);
+    private static final int WORKERS = 3;
+
+    private final VideoService videoService = mock(VideoService.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final ConsumerSeekAware.ConsumerSeekCallback seekCallback = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+    private final Map<String, CountDownLatch> releases = new ConcurrentHashMap<>();
+    private final CountDownLatch started = new CountDownLatch(WORKERS);
+    private TranscodeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        TranscodeProperties properties = new TranscodeProperties();
+        properties.setWorkers(WORKERS);
+        properties.setQueueCapacity(10);
+        scheduler = new TranscodeScheduler(videoService, kafkaTemplate, mock(KafkaListenerEndpointRegistry.class),
+                properties, new HlsProperties(), new SimpleMeterRegistry());
+        scheduler.start();
+
+        when(videoService.processVideo(anyString())).thenAnswer(invocation -> {
+            String resource = invocation.getArgument(0);
+            started.countDown();
+            releases.computeIfAbsent(resource, r -> new CountDownLatch(1)).await(5, TimeUnit.SECONDS);
+            return ProcessedVideo.builder().processedUrl("processed_" + resource).build();
+        });
+        when(kafkaTemplate.send(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void runsJobsConcurrently() throws InterruptedException {
+        for (int i = 0; i < WORKERS; i++) {
+            scheduler.submit(event(i), record(i, mock(Acknowledgment.class)));
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS), "all " + WORKERS + " jobs should run at the same time");
+    }
+
+    @Test
+    void acknowledgesOnlyTheFinishedPrefix() throws InterruptedException {
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        Acknowledgment third = mock(Acknowledgment.class);
+        scheduler.submit(event(0), record(0, first));
+        scheduler.submit(event(1), record(1, second));
+        scheduler.submit(event(2), record(2, third));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Offset 1 finishing alone commits nothing, offset 0 is still running
+        release(1);
+        verify(kafkaTemplate, timeout(1000)).send(anyString(), any());
+        verify(second, after(300).never()).acknowledge();
+
+        // Offset 0 finishing commits through offset 1 with a single acknowledgment
+        release(0);
+        verify(second, timeout(1000)).acknowledge();
+        verify(first, never()).acknowledge();
+
+        release(2);
+        verify(third, timeout(1000)).acknowledge();
+    }
+
+    @Test
+    void redeliversWhenTheResultCannotBePublished() throws InterruptedException {
+        when(kafkaTemplate.send(anyString(), any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        scheduler.submit(event(0), record(0, acknowledgment));
+
+        release(0);
+        verify(seekCallback, timeout(1000)).seek(PARTITION.topic(), PARTITION.partition(), 0);
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private void release(int index) {
+        releases.computeIfAbsent("raw_" + index, r -> new CountDownLatch(1)).countDown();
+    }
+
+    private PostCreatedEvent event(int index) {
+        PostCreatedEvent event = new PostCreatedEvent();
+        event.setPostId("post-" + index);
+        event.setResourceUrl("raw_" + index);
+        return event;
+    }
+
+    private TranscodeScheduler.RecordRef record(long offset, Acknowledgment acknowledgment) {
+        return new TranscodeScheduler.RecordRef(PARTITION, offset, acknowledgment, seekCallback);
+    }
+}
@@ -0,0 +1,42 @@
+// Holds TARGET idle SSE connections against one notification-service node.
+//
+//   k6 run -e BASE_URL=http://localhost:8085 -e TOKENS_FILE=tokens.json -e TARGET=50000 sse-idle-connections.js
+//
+// TOKENS_FILE is a JSON array of access tokens, VUs reuse them round-robin so several tabs per user are exercised.
+// A single k6 process tops out well below 50k sockets, split TARGET across load generators and raise ulimit -n
+// on both sides. Watch heap, sse-writer thread state and open file descriptors on the pod while the test holds.
+import http from 'k6/http';
+import { check } from 'k6';
+import { SharedArray } from 'k6/data';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8085';
+const TARGET = parseInt(__ENV.TARGET || '50000');
+const HOLD = __ENV.HOLD || '10m';
+
+const tokens = new SharedArray('tokens', () => JSON.parse(open(__ENV.TOKENS_FILE || 'tokens.json')));
+
+export const options = {
+    scenarios: {
+        idle: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '5m', target: TARGET },
+                { duration: HOLD, target: TARGET },
+                { duration: '1m', target: 0 },
+            ],
+            gracefulRampDown: '30s',
+        },
+    },
+};
+
+export default function () {
+    const token = tokens[(__VU - 1) % tokens.length];
+    // The request only returns when the server times the stream out or the stage ends, each VU is one open socket
+    const res = http.get(`${BASE_URL}/notification/api/v1/notifications/subscribe`, {
+        headers: { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' },
+        timeout: '2h',
+        responseType: 'none',
+    });
+    check(res, { 'stream accepted': (r) => r.status === 200 });
+}
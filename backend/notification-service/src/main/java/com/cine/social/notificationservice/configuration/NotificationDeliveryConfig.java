@@ -0,0 +1,55 @@
+package com.cine.social.notificationservice.configuration;
+
+import com.cine.social.common.delivery.DeliveryCallback;
+import com.cine.social.common.delivery.DeliveryNode;
+import com.cine.social.common.delivery.DeliveryPartitionManager;
+import com.cine.social.notificationservice.property.NotificationDeliveryProperties;
+import com.cine.social.notificationservice.service.NotificationRouter;
+import com.cine.social.notificationservice.service.SseService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+@Configuration
+public class NotificationDeliveryConfig {
+
+    @Bean
+    public DeliveryNode deliveryNode() {
+        return new DeliveryNode();
+    }
+
+    // Each node consumes only the notification-delivery partition it leases and pushes to its own SSE connections
+    @Bean
+    public DeliveryPartitionManager deliveryPartitionManager(MongoTemplate mongoTemplate,
+                                                             KafkaProperties kafkaProperties,
+                                                             NotificationDeliveryProperties properties,
+                                                             DeliveryNode deliveryNode,
+                                                             SseService sseService) {
+        return new DeliveryPartitionManager(mongoTemplate, kafkaProperties, properties, deliveryNode,
+                "notification-service-delivery", new DeliveryCallback() {
+            @Override
+            public void deliver(ConsumerRecord<String, String> record) {
+                Header eventId = record.headers().lastHeader(NotificationRouter.EVENT_ID_HEADER);
+                sseService.deliver(record.key(),
+                        Objects.nonNull(eventId) ? new String(eventId.value(), StandardCharsets.UTF_8) : null,
+                        record.value());
+            }
+
+            @Override
+            public void refresh() {
+                sseService.refresh();
+            }
+
+            @Override
+            public void clear() {
+                sseService.clear();
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.cine.social.notificationservice.configuration;
+
+import com.cine.social.notificationservice.property.NotificationDeliveryProperties;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class NotificationKafkaTopicConfig {
+
+    @Bean
+    public NewTopic notificationDeliveryTopic(NotificationDeliveryProperties properties) {
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(properties.getPartitions())
+                .build();
+    }
+}
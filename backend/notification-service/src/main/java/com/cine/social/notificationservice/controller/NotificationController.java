@@ -1,6 +1,7 @@
 package com.cine.social.notificationservice.controller;
 
 import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.notificationservice.dto.response.NotificationResponse;
 import com.cine.social.notificationservice.service.NotificationService;
 import com.cine.social.notificationservice.service.SseService;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/notifications")
@@ -20,8 +22,9 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter subscribe() {
-        return sseService.subscribe();
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        return sseService.subscribe(Objects.nonNull(lastEventId) ? lastEventId : lastEventIdParam);
     }
 
     @GetMapping
@@ -29,6 +32,25 @@ public class NotificationController {
         return ApiResponse.success(notificationService.getNotifications());
     }
 
+    @GetMapping("/cursor")
+    public ApiResponse<CursorResponse<List<NotificationResponse>>> getNotificationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(notificationService.getNotificationsByCursor(cursor, size));
+    }
+
+    @GetMapping("/unread-count")
+    public ApiResponse<Long> getUnreadCount() {
+        return ApiResponse.success(notificationService.getUnreadCount());
+    }
+
+    // Marks everything up to and including upTo read, or everything when upTo is omitted
+    @PatchMapping("/read-all")
+    public ApiResponse<String> markAllRead(@RequestParam(required = false) String upTo) {
+        notificationService.markAllRead(upTo);
+        return ApiResponse.successWithMessage("Update successfully");
+    }
+
     @PatchMapping("/{id}")
     public ApiResponse<String> isRead(@PathVariable String id) {
         notificationService.setRead(id);
@@ -0,0 +1,12 @@
+package com.cine.social.notificationservice.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class NotificationActorResponse {
+    private String actorId;
+    private String actorName;
+    private String actorImgUrl;
+}
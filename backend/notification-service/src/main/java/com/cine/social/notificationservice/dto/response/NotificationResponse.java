@@ -2,9 +2,9 @@ package com.cine.social.notificationservice.dto.response;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.util.Date;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -17,6 +17,10 @@ public class NotificationResponse {
     private String type;
     private String message;
     private String resourceId;
+    private String commentId;
+    private int actorCount;
+    private List<NotificationActorResponse> recentActors;
     private boolean isRead;
     private Date createdAt;
+    private Date updatedAt;
 }
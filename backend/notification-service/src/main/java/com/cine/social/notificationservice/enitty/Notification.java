@@ -2,19 +2,23 @@ package com.cine.social.notificationservice.enitty;
 
 import lombok.Builder;
 import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
+import java.util.List;
 
 @Document(collection = "notifications")
+@CompoundIndex(name = "recipient_seq", def = "{'recipientId': 1, 'seq': -1}")
+@CompoundIndex(name = "recipient_unseen_seq", def = "{'recipientId': 1, 'seen': 1, 'seq': -1}")
+@CompoundIndex(name = "group_window", def = "{'groupKey': 1, 'seen': 1, 'windowStartedAt': -1}")
 @Data
 @Builder
 public class Notification {
     @Id
     private String id;
-    @Indexed
     private String recipientId;
     private String actorId;
     private String actorName;
@@ -22,7 +26,20 @@ public class Notification {
     private String type;
     private String message;
     private String resourceId;
+    // Only for comment-scoped types, resourceId is then the post
+    private String commentId;
+    // recipientId:resourceId[:commentId]:type, events sharing it are aggregated into one document per window
+    private String groupKey;
+    @Builder.Default
+    private int actorCount = 1;
+    private List<NotificationActor> recentActors;
+    private Date windowStartedAt;
     @Builder.Default
     private boolean seen = false;
+    // Set once when the first actor arrives, later actors only move updatedAt and seq
+    @CreatedDate
     private Date createdAt;
-}
\ No newline at end of file
+    private Date updatedAt;
+    // Per-recipient activity sequence, see NotificationSequenceClock
+    private Long seq;
+}
@@ -0,0 +1,16 @@
+package com.cine.social.notificationservice.enitty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationActor {
+    private String actorId;
+    private String actorName;
+    private String actorImgUrl;
+}
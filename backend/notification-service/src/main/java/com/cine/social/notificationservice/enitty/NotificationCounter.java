@@ -0,0 +1,19 @@
+package com.cine.social.notificationservice.enitty;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-user unread notification count, kept in step with the notifications collection on insert and mark-read.
+ */
+@Document(collection = "notification_counters")
+@Data
+@Builder
+public class NotificationCounter {
+    @Id
+    private String userId;
+
+    private long unread;
+}
@@ -0,0 +1,21 @@
+package com.cine.social.notificationservice.enitty;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Marker for a one-time data migration, inserted by the replica that runs it so the others skip it.
+ */
+@Document(collection = "notification_migrations")
+@Data
+@Builder
+public class NotificationMigration {
+    @Id
+    private String id;
+    private Date startedAt;
+    private Date completedAt;
+}
@@ -0,0 +1,29 @@
+package com.cine.social.notificationservice.enitty;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One row per (user, node) pair while the node holds at least one open SSE connection for the user.
+ */
+@Document(collection = "user_connections")
+@Data
+@Builder
+public class UserConnection {
+    @Id
+    private String id;
+
+    @Indexed
+    private String userId;
+
+    private String nodeId;
+    private int partition;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+}
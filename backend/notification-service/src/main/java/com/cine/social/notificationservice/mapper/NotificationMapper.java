@@ -4,12 +4,14 @@ import com.cine.social.event.NotificationEvent;
 import com.cine.social.notificationservice.dto.response.NotificationResponse;
 import com.cine.social.notificationservice.enitty.Notification;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface NotificationMapper {
     Notification toEntity(NotificationEvent event);
+    @Mapping(target = "read", source = "seen")
     NotificationResponse toResponse(Notification entity);
     List<NotificationResponse> toListResponses(List<Notification> entities);
 }
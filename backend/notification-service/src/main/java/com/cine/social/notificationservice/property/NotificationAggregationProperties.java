@@ -0,0 +1,20 @@
+package com.cine.social.notificationservice.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.notification.aggregation")
+public class NotificationAggregationProperties {
+    // Events for the same recipient, resource and type collapse into one notification while it is unread and younger than this
+    private Duration window = Duration.ofHours(1);
+    private int recentActors = 5;
+    // Minimum gap between two SSE pushes to the same recipient, updates in between are sent once the gap has passed
+    private Duration pushInterval = Duration.ofSeconds(2);
+}
@@ -0,0 +1,33 @@
+package com.cine.social.notificationservice.property;
+
+import com.cine.social.common.delivery.DeliveryPartitionProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.notification.delivery")
+public class NotificationDeliveryProperties extends DeliveryPartitionProperties {
+    private Duration sseTimeout = Duration.ofHours(1);
+    // Oldest connection is closed when a user opens more tabs than this
+    private int maxConnectionsPerUser = 10;
+    // Pending events per connection before the oldest is dropped
+    private int connectionBufferSize = 64;
+    // Threads performing blocking socket writes for all connections of this node
+    private int writerThreads = 8;
+    // A single send blocked longer than this evicts its connection, keep server.tomcat.connection-timeout in line
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    // Notifications replayed on reconnect, beyond this the client is told to reload its list instead
+    private int replayLimit = 50;
+    // Upper bound of the randomised reconnect delay sent to clients, spreads reconnects after a deploy
+    private Duration maxReconnectDelay = Duration.ofSeconds(5);
+
+    public NotificationDeliveryProperties() {
+        setTopic("notification-delivery");
+    }
+}
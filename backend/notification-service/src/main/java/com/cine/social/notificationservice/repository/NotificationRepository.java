@@ -1,6 +1,8 @@
 package com.cine.social.notificationservice.repository;
 
 import com.cine.social.notificationservice.enitty.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +10,11 @@ import java.util.List;
 
 @Repository
 public interface NotificationRepository extends MongoRepository<Notification, String> {
-    List<Notification> findByRecipientIdOrderByCreatedAtDesc(String userId);
+    Slice<Notification> findByRecipientIdOrderBySeqDesc(String recipientId, Pageable pageable);
+
+    // Keyset page of notifications with less recent activity than the cursor
+    Slice<Notification> findByRecipientIdAndSeqLessThanOrderBySeqDesc(String recipientId, long seq, Pageable pageable);
+
+    // Oldest activity first, so replay resumes exactly after the last delivered event id
+    List<Notification> findByRecipientIdAndSeqGreaterThanOrderBySeqAsc(String recipientId, long seq, Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package com.cine.social.notificationservice.repository;
+
+import com.cine.social.notificationservice.enitty.UserConnection;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserConnectionRepository extends MongoRepository<UserConnection, String> {
+    List<UserConnection> findByUserId(String userId);
+
+    void deleteByNodeId(String nodeId);
+}
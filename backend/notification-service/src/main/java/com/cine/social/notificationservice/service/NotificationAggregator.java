@@ -0,0 +1,101 @@
+package com.cine.social.notificationservice.service;
+
+import com.cine.social.event.NotificationEvent;
+import com.cine.social.notificationservice.enitty.Notification;
+import com.cine.social.notificationservice.property.NotificationAggregationProperties;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collapses notification events for the same (recipient, resource, type) into one upserted document per rolling
+ * window, keeping an actor count and the last few actors instead of one document per event. Comment-scoped types
+ * are also keyed by comment, so votes on two comments under one post stay apart.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationAggregator {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationSequenceClock sequenceClock;
+    private final NotificationAggregationProperties properties;
+
+    /**
+     * Returns the notification after applying the event, its notification is null when the event only repeated a recent actor.
+     */
+    public Result aggregate(NotificationEvent event) {
+        Date now = new Date();
+        long seq = sequenceClock.next();
+        Criteria openWindow = Criteria.where("groupKey").is(groupKey(event))
+                .and("seen").is(false)
+                .and("windowStartedAt").gte(new Date(now.getTime() - properties.getWindow().toMillis()));
+
+        // One conditional upsert: vote, unvote, vote again by the same actor is not new activity and keeps every field
+        Document repeated = new Document("$in", List.of(literal(event.getActorId()),
+                new Document("$ifNull", List.of("$recentActors.actorId", List.of()))));
+        Document actor = new Document("actorId", literal(event.getActorId()))
+                .append("actorName", literal(event.getActorName()))
+                .append("actorImgUrl", literal(event.getActorImgUrl()));
+        Document fields = new Document()
+                .append("actorCount", unlessRepeated(repeated, "actorCount",
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$actorCount", 0)), 1))))
+                .append("recentActors", unlessRepeated(repeated, "recentActors",
+                        new Document("$slice", List.of(new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$recentActors", List.of())), List.of(actor))),
+                                -properties.getRecentActors()))))
+                .append("actorId", unlessRepeated(repeated, "actorId", literal(event.getActorId())))
+                .append("actorName", unlessRepeated(repeated, "actorName", literal(event.getActorName())))
+                .append("actorImgUrl", unlessRepeated(repeated, "actorImgUrl", literal(event.getActorImgUrl())))
+                .append("message", unlessRepeated(repeated, "message", literal(event.getMessage())))
+                .append("updatedAt", unlessRepeated(repeated, "updatedAt", literal(now)))
+                .append("seq", unlessRepeated(repeated, "seq", literal(seq)))
+                .append("createdAt", onInsert("createdAt", now))
+                .append("recipientId", onInsert("recipientId", event.getRecipientId()))
+                .append("resourceId", onInsert("resourceId", event.getResourceId()))
+                .append("commentId", onInsert("commentId", event.getCommentId()))
+                .append("type", onInsert("type", event.getType()))
+                .append("windowStartedAt", onInsert("windowStartedAt", now));
+        AggregationOperation set = context -> new Document("$set", fields);
+
+        // Upsert copies groupKey and seen=false from the equality part of the query
+        Notification notification = mongoTemplate.findAndModify(Query.query(openWindow), AggregationUpdate.from(List.of(set)),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Notification.class);
+        if (Objects.isNull(notification) || !Objects.equals(notification.getSeq(), seq)) {
+            return new Result(null, false);
+        }
+        return new Result(notification, notification.getActorCount() == 1);
+    }
+
+    private static String groupKey(NotificationEvent event) {
+        String resource = Objects.isNull(event.getCommentId())
+                ? event.getResourceId()
+                : event.getResourceId() + ":" + event.getCommentId();
+        return event.getRecipientId() + ":" + resource + ":" + event.getType();
+    }
+
+    // Event values go through $literal so a name or message starting with $ is never read as a field path
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    private static Document unlessRepeated(Document repeated, String field, Object value) {
+        return new Document("$cond", List.of(repeated, "$" + field, value));
+    }
+
+    private static Document onInsert(String field, Object value) {
+        return new Document("$ifNull", List.of("$" + field, literal(value)));
+    }
+
+    public record Result(Notification notification, boolean created) {
+    }
+}
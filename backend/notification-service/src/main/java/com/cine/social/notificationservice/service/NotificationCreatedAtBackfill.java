@@ -0,0 +1,35 @@
+package com.cine.social.notificationservice.service;
+
+import com.cine.social.notificationservice.enitty.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notifications stored before createdAt was audited have none, derive it from the ObjectId timestamp so they sort
+ * and paginate with the rest. A no-op once every document has the field.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationCreatedAtBackfill {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long updated = mongoTemplate.updateMulti(Query.query(Criteria.where("createdAt").is(null)),
+                AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.ToDate.toDate("$_id")),
+                Notification.class).getModifiedCount();
+        if (updated > 0) {
+            log.info("Backfilled createdAt on {} notifications", updated);
+        }
+    }
+}
@@ -2,28 +2,31 @@ package com.cine.social.notificationservice.service;
 
 
 import com.cine.social.event.NotificationEvent;
-import com.cine.social.notificationservice.enitty.Notification;
-import com.cine.social.notificationservice.mapper.NotificationMapper;
-import com.cine.social.notificationservice.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationEventConsumer {
-    private final NotificationRepository notificationRepository;
-    private final SseService sseService;
-    private final NotificationMapper notificationMapper;
-
+    private final NotificationAggregator notificationAggregator;
+    private final NotificationPushThrottle notificationPushThrottle;
+    private final UnreadCounter unreadCounter;
 
+    // Shared group, each notification is stored and routed once for the whole cluster
     @KafkaListener(topics = "notification-topic", groupId = "notification-group")
-    public void handleNotificationEvent(NotificationEvent event){
-        Notification notification = notificationMapper.toEntity(event);
-        Notification savedNotification = notificationRepository.save(notification);
-
-        sseService.sendNotification(event.getRecipientId(), savedNotification);
+    public void handleNotificationEvent(NotificationEvent event) {
+        NotificationAggregator.Result result = notificationAggregator.aggregate(event);
+        if (Objects.isNull(result.notification())) {
+            return;
+        }
+        if (result.created()) {
+            unreadCounter.increment(event.getRecipientId());
+        }
+        notificationPushThrottle.submit(result.notification());
     }
 }
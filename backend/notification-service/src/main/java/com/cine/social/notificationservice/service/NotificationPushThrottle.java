@@ -0,0 +1,65 @@
+package com.cine.social.notificationservice.service;
+
+import com.cine.social.notificationservice.enitty.Notification;
+import com.cine.social.notificationservice.property.NotificationAggregationProperties;
+import com.cine.social.notificationservice.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Limits SSE pushes to one per recipient per push interval. Notifications updated inside the interval are held back
+ * and their latest state is pushed once the interval has passed, so a burst of votes on one post costs one push.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationPushThrottle {
+
+    private final NotificationRouter notificationRouter;
+    private final NotificationRepository notificationRepository;
+    private final NotificationAggregationProperties properties;
+
+    // Guarded by this
+    private final Map<String, Long> lastPushAt = new HashMap<>();
+    private final Map<String, Set<String>> held = new HashMap<>();
+
+    public void submit(Notification notification) {
+        String recipientId = notification.getRecipientId();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Long last = lastPushAt.get(recipientId);
+            if (Objects.nonNull(last) && now - last < properties.getPushInterval().toMillis()) {
+                held.computeIfAbsent(recipientId, id -> new LinkedHashSet<>()).add(notification.getId());
+                return;
+            }
+            lastPushAt.put(recipientId, now);
+        }
+        notificationRouter.route(notification);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.aggregation.flush-interval-ms:500}")
+    public void flush() {
+        Map<String, Set<String>> due = new HashMap<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long interval = properties.getPushInterval().toMillis();
+            held.entrySet().removeIf(entry -> {
+                Long last = lastPushAt.get(entry.getKey());
+                if (Objects.nonNull(last) && now - last < interval) {
+                    return false;
+                }
+                due.put(entry.getKey(), entry.getValue());
+                lastPushAt.put(entry.getKey(), now);
+                return true;
+            });
+            lastPushAt.values().removeIf(last -> now - last >= interval);
+        }
+        due.values().forEach(ids -> notificationRepository.findAllById(ids).forEach(notificationRouter::route));
+    }
+}
@@ -0,0 +1,67 @@
+package com.cine.social.notificationservice.service;
+
+import com.cine.social.common.delivery.DeliveryNode;
+import com.cine.social.notificationservice.enitty.Notification;
+import com.cine.social.notificationservice.enitty.UserConnection;
+import com.cine.social.notificationservice.property.NotificationDeliveryProperties;
+import com.cine.social.notificationservice.repository.UserConnectionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Forwards a stored notification to the notification-delivery partition of every node holding an SSE connection
+ * for the recipient, delivering directly when that node is this one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRouter {
+    public final static String EVENT_ID_HEADER = "event-id";
+
+    private final UserConnectionRepository userConnectionRepository;
+    private final SseService sseService;
+    private final DeliveryNode deliveryNode;
+    private final NotificationDeliveryProperties properties;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void route(Notification notification) {
+        String recipientId = notification.getRecipientId();
+        Set<Integer> partitions = userConnectionRepository.findByUserId(recipientId).stream()
+                .map(UserConnection::getPartition)
+                .collect(Collectors.toSet());
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize notification {}", notification.getId(), e);
+            return;
+        }
+        String eventId = SseService.eventId(notification);
+        for (Integer partition : partitions) {
+            if (partition == deliveryNode.getPartition()) {
+                sseService.deliver(recipientId, eventId, payload);
+            } else {
+                ProducerRecord<String, String> record = new ProducerRecord<>(properties.getTopic(), partition, recipientId, payload);
+                if (Objects.nonNull(eventId)) {
+                    record.headers().add(EVENT_ID_HEADER, eventId.getBytes(StandardCharsets.UTF_8));
+                }
+                kafkaTemplate.send(record);
+            }
+        }
+    }
+}
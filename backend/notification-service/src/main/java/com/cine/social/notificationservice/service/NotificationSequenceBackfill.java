@@ -0,0 +1,78 @@
+package com.cine.social.notificationservice.service;
+
+import com.cine.social.notificationservice.enitty.Notification;
+import com.cine.social.notificationservice.enitty.NotificationMigration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Notifications stored before activity sequences have none. They are numbered per recipient in createdAt order
+ * ending at 0, below anything the sequence clock hands out, so they list and replay after nothing newer. Runs once
+ * for the whole cluster: the first replica to insert the migration marker does the work, a failed run removes the
+ * marker so the next startup retries it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationSequenceBackfill {
+
+    private final static String MIGRATION_ID = "notification-seq-backfill";
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            mongoTemplate.insert(NotificationMigration.builder().id(MIGRATION_ID).startedAt(new Date()).build());
+        } catch (DuplicateKeyException e) {
+            return;
+        }
+
+        try {
+            long updated = assignSequences();
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+                    Update.update("completedAt", new Date()), NotificationMigration.class);
+            log.info("Backfilled seq on {} notifications", updated);
+        } catch (RuntimeException e) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(MIGRATION_ID)), NotificationMigration.class);
+            throw e;
+        }
+    }
+
+    private long assignSequences() {
+        Criteria missing = Criteria.where("seq").exists(false);
+        List<String> recipients = mongoTemplate.findDistinct(Query.query(missing), "recipientId", Notification.class, String.class);
+        long updated = 0;
+        for (String recipientId : recipients) {
+            Query query = Query.query(Criteria.where("recipientId").is(recipientId).and("seq").exists(false))
+                    .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"));
+            query.fields().include("_id");
+            List<Notification> notifications = mongoTemplate.find(query, Notification.class);
+            if (notifications.isEmpty()) {
+                continue;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+            long seq = 0;
+            for (Notification notification : notifications) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(notification.getId()).and("seq").exists(false)),
+                        Update.update("seq", seq--));
+            }
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+}
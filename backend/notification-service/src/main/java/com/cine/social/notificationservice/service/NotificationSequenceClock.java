@@ -0,0 +1,22 @@
+package com.cine.social.notificationservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out increasing activity sequences without a database round trip: wall clock microseconds, bumped by one
+ * whenever two calls land in the same microsecond or the clock steps back. Notification events are keyed by recipient,
+ * so one node aggregates a recipient's events at a time and its sequences stay ordered. A notification takes a new
+ * one every time it gains an actor, it is the SSE event id and the key notifications are listed and replayed by.
+ */
+@Component
+public class NotificationSequenceClock {
+
+    private final AtomicLong last = new AtomicLong();
+
+    public long next() {
+        long now = System.currentTimeMillis() * 1000;
+        return last.updateAndGet(previous -> Math.max(previous + 1, now));
+    }
+}
@@ -1,5 +1,6 @@
 package com.cine.social.notificationservice.service;
 
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.notificationservice.dto.response.NotificationResponse;
 
 import java.util.List;
@@ -7,5 +8,11 @@ import java.util.List;
 public interface NotificationService {
     List<NotificationResponse> getNotifications();
 
+    CursorResponse<List<NotificationResponse>> getNotificationsByCursor(String cursor, int size);
+
+    long getUnreadCount();
+
     void setRead(String id);
+
+    void markAllRead(String upToId);
 }
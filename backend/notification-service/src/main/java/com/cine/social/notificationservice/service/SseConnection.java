@@ -0,0 +1,149 @@
+package com.cine.social.notificationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * One open SSE stream with its own bounded outbound queue. Producers only enqueue, a shared writer pool performs
+ * the blocking socket writes, so a slow client fills its own queue instead of stalling the Kafka listener. The start
+ * of the write in flight is tracked so a send that outlives its deadline can be evicted, see SseService.
+ */
+@Slf4j
+class SseConnection {
+    // Events written per turn on a writer thread before yielding to other connections
+    private static final int MAX_WRITES_PER_TURN = 32;
+
+    private final String userId;
+    private final SseEmitter emitter;
+    private final Executor writer;
+    private final int capacity;
+
+    private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+    private boolean draining;
+    private long dropped;
+    private volatile boolean closed;
+    private volatile boolean abandoned;
+    // System.nanoTime() when the write in flight started, 0 while idle
+    private volatile long writeStartedAt;
+
+    SseConnection(String userId, SseEmitter emitter, Executor writer, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.writer = writer;
+        this.capacity = capacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queues an event, dropping the oldest pending one when the client is not keeping up. Clients recover dropped
+     * notifications from the notification list.
+     */
+    void offer(SseEmitter.SseEventBuilder event) {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= capacity) {
+                queue.pollFirst();
+                if (dropped++ == 0) {
+                    log.warn("SSE client {} is falling behind, dropping oldest queued events", userId);
+                }
+            }
+            queue.addLast(event);
+            scheduleIfIdle();
+        }
+    }
+
+    /**
+     * Heartbeats coalesce into whatever is already queued, a backlog proves liveness as well as a ping does.
+     */
+    void ping() {
+        synchronized (queue) {
+            if (closed || !queue.isEmpty()) {
+                return;
+            }
+            queue.addLast(SseEmitter.event().comment("ping"));
+            scheduleIfIdle();
+        }
+    }
+
+    void close() {
+        closed = true;
+        synchronized (queue) {
+            queue.clear();
+        }
+        emitter.complete();
+    }
+
+    /**
+     * True while a single send has been blocked on the socket for longer than the timeout.
+     */
+    boolean isStalled(long timeoutNanos) {
+        long startedAt = writeStartedAt;
+        return startedAt != 0 && System.nanoTime() - startedAt > timeoutNanos;
+    }
+
+    /**
+     * Stops queueing for a connection whose writer is stuck on the socket. The emitter is not completed here, that
+     * would wait on the stuck write, the send fails on the container write timeout and completes it.
+     */
+    void abandon() {
+        abandoned = true;
+        closed = true;
+        synchronized (queue) {
+            queue.clear();
+        }
+    }
+
+    private void scheduleIfIdle() {
+        if (!draining) {
+            draining = true;
+            writer.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < MAX_WRITES_PER_TURN; i++) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (queue) {
+                event = queue.pollFirst();
+                if (Objects.isNull(event)) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                writeStartedAt = System.nanoTime();
+                emitter.send(event);
+            } catch (Exception e) {
+                log.warn("Error sending SSE to user {}, dropping connection", userId);
+                closed = true;
+                synchronized (queue) {
+                    queue.clear();
+                    draining = false;
+                }
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                writeStartedAt = 0;
+            }
+            if (abandoned) {
+                // The stuck write went through after all, the connection is already evicted
+                synchronized (queue) {
+                    draining = false;
+                }
+                emitter.complete();
+                return;
+            }
+        }
+        writer.execute(this::drain);
+    }
+}
@@ -1,72 +1,264 @@
 package com.cine.social.notificationservice.service;
 
+import com.cine.social.common.delivery.DeliveryNode;
 import com.cine.social.common.utils.SecurityUtils;
+import com.cine.social.notificationservice.enitty.Notification;
+import com.cine.social.notificationservice.enitty.UserConnection;
+import com.cine.social.notificationservice.property.NotificationDeliveryProperties;
+import com.cine.social.notificationservice.repository.NotificationRepository;
+import com.cine.social.notificationservice.repository.UserConnectionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Holds every open SSE connection on this node, any number per user, and publishes (user, node) pairs to
+ * user_connections so notifications are forwarded only to the nodes that can deliver them.
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class SseService {
-     private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
 
-     public SseEmitter subscribe(){
+    private final UserConnectionRepository userConnectionRepository;
+    private final NotificationRepository notificationRepository;
+    private final ObjectMapper objectMapper;
+    private final DeliveryNode deliveryNode;
+    private final NotificationDeliveryProperties properties;
+
+    private final Map<String, List<SseConnection>> connections = new ConcurrentHashMap<>();
+    private ExecutorService writer;
+
+    @PostConstruct
+    public void start() {
+        writer = Executors.newFixedThreadPool(properties.getWriterThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "sse-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        writer.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
         String currentUserId = SecurityUtils.getCurrentUserId();
 
-        SseEmitter sseEmitter = new SseEmitter(3600000L);
-        emitters.put(currentUserId, sseEmitter);
-
-         sseEmitter.onCompletion(() -> {
-                     log.info("Sse {} complete", currentUserId);
-                     emitters.remove(currentUserId, sseEmitter);
-                 }
-         );
-         sseEmitter.onTimeout(() -> {
-                     log.info("Sse {} timeout", currentUserId);
-                     sseEmitter.complete();
-                     emitters.remove(currentUserId, sseEmitter);
-                 }
-         );
-         sseEmitter.onError((e) -> {
-             log.error("Sse {} error", currentUserId, e);
-             sseEmitter.completeWithError(e);
-             emitters.remove(currentUserId, sseEmitter);
-         });
-
-         try {
-             sseEmitter.send(SseEmitter.event()
-                     .name("INIT")
-                     .data("Connection established"));
-         } catch (IOException e) {
-             log.error("Error sending INIT event to user {}", currentUserId, e);
-             emitters.remove(currentUserId);
-         }
-
-         return sseEmitter;
-     }
-
-    public void sendNotification(String recipientId, Object notificationData) {
-        SseEmitter sseEmitter = emitters.get(recipientId);
-        if(Objects.nonNull(sseEmitter)){
+        SseEmitter sseEmitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        SseConnection connection = new SseConnection(currentUserId, sseEmitter, writer, properties.getConnectionBufferSize());
+        sseEmitter.onCompletion(() -> {
+            log.debug("Sse {} complete", currentUserId);
+            remove(currentUserId, connection);
+        });
+        sseEmitter.onTimeout(() -> {
+            log.debug("Sse {} timeout", currentUserId);
+            sseEmitter.complete();
+            remove(currentUserId, connection);
+        });
+        sseEmitter.onError((e) -> {
+            log.debug("Sse {} error", currentUserId, e);
+            remove(currentUserId, connection);
+        });
+
+        long reconnectDelay = ThreadLocalRandom.current().nextLong(1000, Math.max(1001, properties.getMaxReconnectDelay().toMillis()));
+        connection.offer(SseEmitter.event()
+                .name("INIT")
+                .reconnectTime(reconnectDelay)
+                .data("Connection established"));
+
+        // Registered before replaying so nothing saved in between is missed, clients dedupe on the event id
+        add(currentUserId, connection);
+        if (StringUtils.hasText(lastEventId)) {
+            replay(currentUserId, lastEventId, connection);
+        }
+        return sseEmitter;
+    }
+
+    public boolean hasLocalConnections(String userId) {
+        return connections.containsKey(userId);
+    }
+
+    /**
+     * Queues an already serialized notification on every connection the user has open on this node. Never blocks
+     * on the network, the writes happen on the sse-writer pool.
+     */
+    public void deliver(String recipientId, String eventId, String notificationJson) {
+        List<SseConnection> userConnections = connections.get(recipientId);
+        if (Objects.isNull(userConnections)) {
+            log.debug("User {} has no SSE connection on this node, notification skipped", recipientId);
+            return;
+        }
+        for (SseConnection connection : userConnections) {
+            connection.offer(notificationEvent(eventId, notificationJson));
+        }
+    }
+
+    /**
+     * The SSE event id of a notification is its activity sequence, so a notification that gained actors while the
+     * client was away is replayed again with its latest state.
+     */
+    public static String eventId(Notification notification) {
+        return Objects.nonNull(notification.getSeq()) ? String.valueOf(notification.getSeq()) : null;
+    }
+
+    private void replay(String userId, String lastEventId, SseConnection connection) {
+        Optional<Long> lastSeq = lastSeq(userId, lastEventId);
+        if (lastSeq.isEmpty()) {
+            connection.offer(SseEmitter.event().name("RESYNC").data("Unknown last event id"));
+            return;
+        }
+
+        int limit = properties.getReplayLimit();
+        List<Notification> missed = notificationRepository.findByRecipientIdAndSeqGreaterThanOrderBySeqAsc(userId,
+                lastSeq.get(), PageRequest.of(0, limit + 1));
+        if (missed.size() > limit) {
+            connection.offer(SseEmitter.event().name("RESYNC").data("Too many missed notifications"));
+            return;
+        }
+        for (Notification notification : missed) {
             try {
-                log.info("Sending notification to {}", recipientId);
-                sseEmitter.send(
-                        SseEmitter.event()
-                                .name("notification")
-                                .data(notificationData)
-                );
-            } catch (Exception e) {
-                log.error("Error sending SSE to user {}", recipientId, e);
-                emitters.remove(recipientId, sseEmitter);
+                connection.offer(notificationEvent(eventId(notification), objectMapper.writeValueAsString(notification)));
+            } catch (JsonProcessingException e) {
+                log.error("Cannot serialize notification {} for replay", notification.getId(), e);
+            }
+        }
+        log.debug("Replayed {} notifications to user {}", missed.size(), userId);
+    }
+
+    // Clients connected before event ids were sequences still send a notification id
+    private Optional<Long> lastSeq(String userId, String lastEventId) {
+        if (ObjectId.isValid(lastEventId)) {
+            return notificationRepository.findById(lastEventId)
+                    .filter(n -> userId.equals(n.getRecipientId()))
+                    .map(Notification::getSeq);
+        }
+        try {
+            return Optional.of(Long.parseLong(lastEventId));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private SseEmitter.SseEventBuilder notificationEvent(String eventId, String notificationJson) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("notification");
+        if (Objects.nonNull(eventId)) {
+            event.id(eventId);
+        }
+        return event.data(notificationJson, MediaType.APPLICATION_JSON);
+    }
+
+    // Comment frames keep proxies from idling the stream out and surface dead sockets as send failures
+    @Scheduled(fixedDelayString = "${app.notification.delivery.sse-heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        connections.values().forEach(userConnections -> userConnections.forEach(SseConnection::ping));
+    }
+
+    /**
+     * Evicts connections whose send has been blocked past the write timeout, so no more events queue behind a client
+     * that stopped reading. The stuck writer thread is released by the container write timeout.
+     */
+    @Scheduled(fixedDelayString = "${app.notification.delivery.write-check-interval-ms:1000}")
+    public void evictStalled() {
+        long timeoutNanos = properties.getWriteTimeout().toNanos();
+        connections.forEach((userId, userConnections) -> userConnections.forEach(connection -> {
+            if (connection.isStalled(timeoutNanos)) {
+                log.warn("SSE write to user {} blocked for over {}, evicting connection", userId, properties.getWriteTimeout());
+                connection.abandon();
+                remove(userId, connection);
             }
-        } else {
-            log.warn("SSE Warning: User {} not found in emitters map. Notification skipped.", recipientId);
+        }));
+    }
+
+    /**
+     * Re-publishes every locally connected user, extending its expiry. Also used after the node moves to a new partition.
+     */
+    public void refresh() {
+        if (!deliveryNode.hasPartition()) {
+            return;
+        }
+        List<UserConnection> rows = connections.keySet().stream()
+                .map(this::toConnection)
+                .toList();
+        if (!rows.isEmpty()) {
+            userConnectionRepository.saveAll(rows);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Closes every local connection so clients reconnect to another node, and withdraws this node's presence.
+     */
+    public void clear() {
+        List<List<SseConnection>> open = new ArrayList<>(connections.values());
+        connections.clear();
+        open.forEach(userConnections -> userConnections.forEach(SseConnection::close));
+        userConnectionRepository.deleteByNodeId(deliveryNode.getNodeId());
+    }
+
+    private void add(String userId, SseConnection connection) {
+        List<SseConnection> evicted = new ArrayList<>();
+        boolean[] first = {false};
+        connections.compute(userId, (id, current) -> {
+            List<SseConnection> userConnections = Objects.isNull(current) ? new CopyOnWriteArrayList<>() : current;
+            first[0] = Objects.isNull(current);
+            userConnections.add(connection);
+            while (userConnections.size() > properties.getMaxConnectionsPerUser()) {
+                evicted.add(userConnections.remove(0));
+            }
+            return userConnections;
+        });
+        evicted.forEach(SseConnection::close);
+        if (first[0] && deliveryNode.hasPartition()) {
+            userConnectionRepository.save(toConnection(userId));
+        }
+    }
+
+    private void remove(String userId, SseConnection connection) {
+        boolean[] last = {false};
+        connections.computeIfPresent(userId, (id, current) -> {
+            current.remove(connection);
+            last[0] = current.isEmpty();
+            return last[0] ? null : current;
+        });
+        if (last[0]) {
+            userConnectionRepository.deleteById(connectionId(userId));
+        }
+    }
+
+    private UserConnection toConnection(String userId) {
+        return UserConnection.builder()
+                .id(connectionId(userId))
+                .userId(userId)
+                .nodeId(deliveryNode.getNodeId())
+                .partition(deliveryNode.getPartition())
+                .expiresAt(new Date(System.currentTimeMillis() + properties.getLeaseTtl().toMillis()))
+                .build();
+    }
+
+    private String connectionId(String userId) {
+        return userId + ":" + deliveryNode.getNodeId();
+    }
+}
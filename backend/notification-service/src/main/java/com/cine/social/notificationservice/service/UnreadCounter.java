@@ -0,0 +1,59 @@
+package com.cine.social.notificationservice.service;
+
+import com.cine.social.notificationservice.enitty.Notification;
+import com.cine.social.notificationservice.enitty.NotificationCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Reads and adjusts notification_counters. A missing counter is seeded from a count of unseen notifications, which
+ * also covers users whose notifications predate the counters.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnreadCounter {
+
+    private final MongoTemplate mongoTemplate;
+
+    public long get(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        if (Objects.isNull(counter)) {
+            counter = seed(userId);
+        }
+        return Math.max(0, counter.getUnread());
+    }
+
+    public void increment(String userId) {
+        add(userId, 1);
+    }
+
+    public void decrement(String userId, long count) {
+        if (count > 0) {
+            add(userId, -count);
+        }
+    }
+
+    private void add(String userId, long delta) {
+        boolean exists = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("unread", delta), NotificationCounter.class).getMatchedCount() > 0;
+        if (!exists) {
+            // Seeding counts the notification that triggered this change, so no delta is applied on top
+            seed(userId);
+        }
+    }
+
+    private NotificationCounter seed(String userId) {
+        long unread = mongoTemplate.count(Query.query(Criteria.where("recipientId").is(userId).and("seen").is(false)),
+                Notification.class);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)),
+                new Update().setOnInsert("unread", unread),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), NotificationCounter.class);
+    }
+}
@@ -1,35 +1,112 @@
 package com.cine.social.notificationservice.service.impl;
 
+import com.cine.social.common.dto.response.CursorResponse;
+import com.cine.social.common.exception.AppException;
+import com.cine.social.common.exception.CommonErrorCode;
 import com.cine.social.common.utils.SecurityUtils;
 import com.cine.social.notificationservice.dto.response.NotificationResponse;
 import com.cine.social.notificationservice.enitty.Notification;
 import com.cine.social.notificationservice.mapper.NotificationMapper;
 import com.cine.social.notificationservice.repository.NotificationRepository;
 import com.cine.social.notificationservice.service.NotificationService;
+import com.cine.social.notificationservice.service.UnreadCounter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
+    // The legacy list endpoint returns only the newest page, older entries are reached through the cursor endpoint
+    private static final int LEGACY_LIST_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
+    private final MongoTemplate mongoTemplate;
+    private final UnreadCounter unreadCounter;
 
     @Override
     public List<NotificationResponse> getNotifications() {
         String currentUserId = SecurityUtils.getCurrentUserId();
-        List<Notification> entities = notificationRepository.findByRecipientIdOrderByCreatedAtDesc(currentUserId);
-        return notificationMapper.toListResponses(entities);
+        Slice<Notification> slice = notificationRepository.findByRecipientIdOrderBySeqDesc(
+                currentUserId, PageRequest.of(0, LEGACY_LIST_SIZE));
+        return notificationMapper.toListResponses(slice.getContent());
+    }
+
+    @Override
+    public CursorResponse<List<NotificationResponse>> getNotificationsByCursor(String cursor, int size) {
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageRequest pageRequest = PageRequest.of(0, pageSize);
+
+        Slice<Notification> slice;
+        if (!StringUtils.hasText(cursor)) {
+            slice = notificationRepository.findByRecipientIdOrderBySeqDesc(currentUserId, pageRequest);
+        } else {
+            slice = notificationRepository.findByRecipientIdAndSeqLessThanOrderBySeqDesc(currentUserId,
+                    decodeCursor(cursor), pageRequest);
+        }
+
+        List<Notification> notifications = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !notifications.isEmpty()) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = Objects.nonNull(last.getSeq()) ? String.valueOf(last.getSeq()) : null;
+        }
+
+        return CursorResponse.<List<NotificationResponse>>builder()
+                .pageSize(pageSize)
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .items(notificationMapper.toListResponses(notifications))
+                .build();
+    }
+
+    @Override
+    public long getUnreadCount() {
+        return unreadCounter.get(SecurityUtils.getCurrentUserId());
     }
 
     @Override
     public void setRead(String id) {
-        Optional<Notification> optional = notificationRepository.findById(id);
-        if(optional.isEmpty())
-            return;
-        optional.get().setSeen(true);
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        Query unseen = Query.query(Criteria.where("_id").is(id).and("recipientId").is(currentUserId).and("seen").is(false));
+        long modified = mongoTemplate.updateFirst(unseen, Update.update("seen", true), Notification.class).getModifiedCount();
+        unreadCounter.decrement(currentUserId, modified);
+    }
+
+    @Override
+    public void markAllRead(String upToId) {
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        Criteria unseen = Criteria.where("recipientId").is(currentUserId).and("seen").is(false);
+        if (StringUtils.hasText(upToId)) {
+            long upTo = notificationRepository.findById(upToId)
+                    .filter(notification -> currentUserId.equals(notification.getRecipientId()))
+                    .map(Notification::getSeq)
+                    .orElseThrow(() -> new AppException(CommonErrorCode.VALIDATION_ERROR));
+            unseen.and("seq").lte(upTo);
+        }
+
+        long modified = mongoTemplate.updateMulti(Query.query(unseen), Update.update("seen", true), Notification.class).getModifiedCount();
+        unreadCounter.decrement(currentUserId, modified);
+    }
+
+    // The cursor is the activity sequence of the last notification on the previous page
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new AppException(CommonErrorCode.INVALID_CURSOR);
+        }
     }
 }
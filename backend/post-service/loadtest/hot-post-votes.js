@@ -0,0 +1,62 @@
+// Concurrent voters on one hot post, to compare the old synchronous vote_count update with the write-behind
+// VoteAggregator path.
+//
+//   k6 run -e BASE_URL=http://localhost:8082 -e TOKENS_FILE=tokens.json -e POST_ID=<fresh post> hot-post-votes.js
+//
+// Run it twice on a fresh post each time: once against a post-service built from the commit before the
+// write-behind change (git checkout 815e9cd~1 -- backend/post-service) and once against the current build.
+// TOKENS_FILE is a JSON array of access tokens, one VU per token so every VU is a distinct voter. Each VU flips
+// its vote between -1 and +1 and always finishes on +1, so the post must end with voteCount equal to the number of
+// tokens. Compare http_req_duration p95/p99, http_reqs/s and the final count check, lost updates show up there.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { SharedArray } from 'k6/data';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+const POST_ID = __ENV.POST_ID;
+// Even, so the last vote of every VU is +1
+const ITERATIONS = 2 * Math.ceil(parseInt(__ENV.ITERATIONS || '200') / 2);
+// Longer than app.vote.flush-interval-ms, the new path applies the count after the flush
+const SETTLE = parseInt(__ENV.SETTLE_SECONDS || '3');
+
+const tokens = new SharedArray('tokens', () => JSON.parse(open(__ENV.TOKENS_FILE || 'tokens.json')));
+
+export const options = {
+    scenarios: {
+        voters: {
+            executor: 'per-vu-iterations',
+            vus: tokens.length,
+            iterations: ITERATIONS,
+            maxDuration: '30m',
+        },
+    },
+    thresholds: {
+        checks: ['rate==1.0'],
+    },
+};
+
+export function setup() {
+    if (!POST_ID) {
+        throw new Error('POST_ID is required');
+    }
+}
+
+export default function () {
+    const token = tokens[__VU - 1];
+    const value = __ITER % 2 === 0 ? -1 : 1;
+    const res = http.post(`${BASE_URL}/post/api/v1/posts/${POST_ID}/vote?value=${value}`, null, {
+        headers: { Authorization: `Bearer ${token}` },
+        tags: { name: 'vote' },
+    });
+    check(res, { 'vote accepted': (r) => r.status === 200 });
+}
+
+export function teardown() {
+    sleep(SETTLE);
+    const res = http.get(`${BASE_URL}/post/api/v1/posts/${POST_ID}`, {
+        headers: { Authorization: `Bearer ${tokens[0]}` },
+    });
+    const voteCount = res.json('data.voteCount');
+    console.log(`final voteCount ${voteCount}, expected ${tokens.length}`);
+    check(res, { 'no lost votes': () => voteCount === tokens.length });
+}
@@ -0,0 +1,16 @@
+package com.cine.social.post.configuration;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.springframework.beans.factory.annotation.Value;
+
+public class InternalApiKeyRequestInterceptor implements RequestInterceptor {
+
+    @Value("${app.security.internal-api-key}")
+    private String internalApiKey;
+
+    @Override
+    public void apply(RequestTemplate template) {
+        template.header("X-Internal-Client", internalApiKey);
+    }
+}
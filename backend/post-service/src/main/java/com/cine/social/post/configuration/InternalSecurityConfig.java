@@ -0,0 +1,35 @@
+package com.cine.social.post.configuration;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+@Configuration
+public class InternalSecurityConfig {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain internalFilterChain(HttpSecurity http, InternalApiAuthFilter internalApiAuthFilter) throws Exception {
+        http.securityMatcher("/internal/**")
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(internalApiAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .authorizeHttpRequests(auth -> auth
+                    .anyRequest().hasRole("INTERNAL_CLIENT"));
+
+        return http.build();
+    }
+
+    @Bean
+    public FilterRegistrationBean<InternalApiAuthFilter> internalApiAuthFilterRegistrationBean(InternalApiAuthFilter filter) {
+        FilterRegistrationBean<InternalApiAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cine.social.post.configuration;
+
+import com.cine.social.common.cache.ProfileCache;
+import com.cine.social.common.cache.ProfileCacheProperties;
+import com.cine.social.post.entity.UserProfile;
+import com.cine.social.post.repository.UserProfileRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Configuration
+public class ProfileCacheConfig {
+
+    @Bean
+    public ProfileCache<UserProfile> userProfileCache(UserProfileRepository userProfileRepository,
+                                                      ProfileCacheProperties properties) {
+        return new ProfileCache<>(
+                "post.user-profiles",
+                properties,
+                id -> userProfileRepository.findById(id).orElse(null),
+                ids -> userProfileRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(UserProfile::getId, Function.identity()))
+        );
+    }
+}
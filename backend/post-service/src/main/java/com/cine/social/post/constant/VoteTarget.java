@@ -0,0 +1,15 @@
+package com.cine.social.post.constant;
+
+import lombok.Getter;
+
+@Getter
+public enum VoteTarget {
+    POST("posts"),
+    COMMENT("comments");
+
+    private final String table;
+
+    VoteTarget(String table) {
+        this.table = table;
+    }
+}
@@ -4,8 +4,11 @@ package com.cine.social.post.controller;
 
 import com.cine.social.common.dto.response.ApiResponse;
 import com.cine.social.common.dto.response.PageResponse;
+import com.cine.social.common.utils.PageHelper;
 import com.cine.social.post.dto.response.CommentResponse;
 import com.cine.social.post.service.CommentService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,7 +24,7 @@ public class CommentController {
     public ApiResponse<PageResponse<List<CommentResponse>>> getReplies(
             @PathVariable String commentId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(commentService.getReplies(commentId, page, size));
     }
 
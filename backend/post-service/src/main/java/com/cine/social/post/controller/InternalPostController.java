@@ -0,0 +1,24 @@
+package com.cine.social.post.controller;
+
+import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.event.PostOutboxEvent;
+import com.cine.social.post.service.PostService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/posts")
+@RequiredArgsConstructor
+public class InternalPostController {
+
+    private final PostService postService;
+
+    @GetMapping("/export")
+    ApiResponse<List<PostOutboxEvent>> exportPosts(@RequestParam(required = false) String afterId,
+                                                   @RequestParam(required = false) String toId,
+                                                   @RequestParam(defaultValue = "500") int size) {
+        return ApiResponse.success(postService.exportPosts(afterId, toId, Math.min(size, 1000)));
+    }
+}
@@ -1,7 +1,9 @@
 package com.cine.social.post.controller;
 
 import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.common.dto.response.PageResponse;
+import com.cine.social.common.utils.PageHelper;
 import com.cine.social.post.dto.request.CommentRequest;
 import com.cine.social.post.dto.request.PostCreationRequest;
 import com.cine.social.post.dto.request.PostUpdateRequest;
@@ -10,6 +12,8 @@ import com.cine.social.post.dto.response.PostResponse;
 import com.cine.social.post.service.CommentService;
 import com.cine.social.post.service.PostService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,28 +41,28 @@ public class PostController {
     @GetMapping
     public ApiResponse<PageResponse<List<PostResponse>>>getPosts(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "15") int size) {
+            @RequestParam(defaultValue = "15") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(postService.getPosts(page, size));
     }
 
     @GetMapping("/my-posts")
     public ApiResponse<PageResponse<List<PostResponse>>>getMyPosts(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(postService.getMyPosts(page, size));
     }
 
     @GetMapping("/my-feed")
     public ApiResponse<PageResponse<List<PostResponse>>>getMyFeed(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(postService.getMyFeed(page, size));
     }
 
     @GetMapping("/reels")
     public ApiResponse<PageResponse<List<PostResponse>>>getReels(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(postService.getReels(page, size));
     }
 
@@ -66,10 +70,45 @@ public class PostController {
     public ApiResponse<PageResponse<List<PostResponse>>>getPostsByUserId(
             @PathVariable String userId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(postService.getPostsByUserId(userId, page, size));
     }
 
+    @GetMapping("/cursor")
+    public ApiResponse<CursorResponse<List<PostResponse>>> getPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "15") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
+        return ApiResponse.success(postService.getPostsByCursor(cursor, size));
+    }
+
+    @GetMapping("/my-posts/cursor")
+    public ApiResponse<CursorResponse<List<PostResponse>>> getMyPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
+        return ApiResponse.success(postService.getMyPostsByCursor(cursor, size));
+    }
+
+    @GetMapping("/my-feed/cursor")
+    public ApiResponse<CursorResponse<List<PostResponse>>> getMyFeedByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
+        return ApiResponse.success(postService.getMyFeedByCursor(cursor, size));
+    }
+
+    @GetMapping("/reels/cursor")
+    public ApiResponse<CursorResponse<List<PostResponse>>> getReelsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
+        return ApiResponse.success(postService.getReelsByCursor(cursor, size));
+    }
+
+    @GetMapping("/user/{userId}/cursor")
+    public ApiResponse<CursorResponse<List<PostResponse>>> getPostsByUserIdAndCursor(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
+        return ApiResponse.success(postService.getPostsByUserIdAndCursor(userId, cursor, size));
+    }
 
     @PutMapping("/{postId}")
     public ApiResponse<String> updatePost(@PathVariable String postId, @RequestBody PostUpdateRequest request) {
@@ -93,7 +132,7 @@ public class PostController {
     public ApiResponse<PageResponse<List<CommentResponse>>> getCommentsOfPost(
             @PathVariable String postId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(PageHelper.MAX_PAGE_SIZE) int size) {
         return ApiResponse.success(commentService.getCommentsByPostId(postId, page, size));
     }
 
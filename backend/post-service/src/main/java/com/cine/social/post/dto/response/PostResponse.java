@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -18,6 +19,8 @@ public class PostResponse {
     private String content;
     private String resourceUrl;
     private String resourceType;
+    private String hlsMasterUrl;
+    private List<RenditionResponse> renditions;
     private int commentCount;
     private String status;
     private int voteCount;
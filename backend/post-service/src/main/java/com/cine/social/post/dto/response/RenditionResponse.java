@@ -0,0 +1,18 @@
+package com.cine.social.post.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenditionResponse {
+    private String name;
+    private int width;
+    private int height;
+    private long bandwidth;
+    private String playlistUrl;
+}
@@ -67,7 +67,8 @@ public class Comment {
     @Builder.Default
     private int replyCount = 0;
 
-    @Column(name = "vote_count")
+    // Maintained by VoteAggregator, never written back from the entity
+    @Column(name = "vote_count", updatable = false)
     @Builder.Default
     private int voteCount = 0;
 
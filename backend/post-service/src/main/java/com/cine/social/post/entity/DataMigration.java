@@ -0,0 +1,25 @@
+package com.cine.social.post.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One-time data migrations run at startup, the row is claimed by the first replica so the others skip it
+@Entity
+@Table(name = "data_migrations")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataMigration {
+    @Id
+    private String id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,45 @@
+package com.cine.social.post.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "feed_items",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"user_id", "post_id"})
+        },
+        indexes = {
+                @Index(name = "idx_feed_items_user_created", columnList = "user_id, created_at"),
+                @Index(name = "idx_feed_items_user_author", columnList = "user_id, author_id")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(name = "author_id", nullable = false)
+    private String authorId;
+
+    // Copied from the post so the inbox can be range-scanned without touching posts
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "outbox_events")
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_sent_created", columnList = "sent_at, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,4 +29,6 @@ public class OutboxEvent {
 
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
 }
\ No newline at end of file
@@ -4,15 +4,21 @@ import com.cine.social.post.constant.PostStatus;
 import com.cine.social.post.constant.ResourceType;
 import jakarta.persistence.*;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.*;
 import org.hibernate.annotations.*;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_posts_status_type_created", columnList = "status, resource_type, created_at, id"),
+        @Index(name = "idx_posts_user_created", columnList = "user_id, created_at, id")
+})
 @Getter
 @Setter
 @Builder
@@ -32,6 +38,14 @@ public class Post {
     @Column(name = "resource_url")
     private String resourceUrl;
 
+    // HLS master playlist of a video post, players fall back to resourceUrl when it is absent
+    @Column(name = "hls_master_url")
+    private String hlsMasterUrl;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "renditions", columnDefinition = "json")
+    private List<VideoRendition> renditions;
+
     @Column(name = "resource_type")
     @Enumerated(EnumType.STRING)
     private ResourceType resourceType;
@@ -56,12 +70,15 @@ public class Post {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private List<PostVote> votes;
 
-    @Column(name = "vote_count")
+    // Maintained by VoteAggregator, never written back from the entity
+    @Column(name = "vote_count", updatable = false)
     @Builder.Default
     private int voteCount = 0;
 
-    @Formula("(SELECT COUNT(*) FROM comments c WHERE c.post_id = id)")
-    private int commentCount;
+    // Maintained with atomic increments by CommentServiceImpl, never written back from the entity
+    @Column(name = "comment_count", updatable = false)
+    @Builder.Default
+    private int commentCount = 0;
 
 
     @CreationTimestamp
@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "user_follows", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"follower_id", "followed_id"})
+}, indexes = {
+        @Index(name = "idx_user_follows_followed", columnList = "followed_id")
 })
 @Data
 @Builder
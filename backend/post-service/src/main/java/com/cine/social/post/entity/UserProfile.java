@@ -3,6 +3,8 @@ package com.cine.social.post.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "user_profiles")
 @Data
@@ -15,4 +17,12 @@ public class UserProfile {
     private String firstName;
     private String lastName;
     private String imgUrl;
+
+    @Column(name = "follower_count")
+    @Builder.Default
+    private long followerCount = 0;
+
+    // Set while the author is at or above the fan-out threshold, posts from this moment on are merged at read time
+    @Column(name = "celebrity_since")
+    private LocalDateTime celebritySince;
 }
\ No newline at end of file
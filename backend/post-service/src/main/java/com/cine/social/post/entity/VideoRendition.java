@@ -0,0 +1,21 @@
+package com.cine.social.post.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One HLS rendition of a post's video, stored as an element of the posts.renditions JSON column.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoRendition {
+    private String name;
+    private int width;
+    private int height;
+    private long bandwidth;
+    private String playlistUrl;
+}
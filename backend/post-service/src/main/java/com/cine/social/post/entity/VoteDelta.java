@@ -0,0 +1,38 @@
+package com.cine.social.post.entity;
+
+import com.cine.social.post.constant.VoteTarget;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Journal of vote count changes not yet applied to posts/comments, replayed after a crash
+@Entity
+@Table(name = "vote_deltas", indexes = {
+        @Index(name = "idx_vote_deltas_created", columnList = "created_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteDelta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private VoteTarget targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private String targetId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -2,16 +2,24 @@ package com.cine.social.post.httpclient;
 
 import com.cine.social.common.configuration.AuthenticationRequestInterceptor;
 import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.post.configuration.InternalApiKeyRequestInterceptor;
 import com.cine.social.post.dto.response.UserResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "identity-service", url = "${app.services.identity-service.url}",
-    configuration = {AuthenticationRequestInterceptor.class})
+    configuration = {AuthenticationRequestInterceptor.class, InternalApiKeyRequestInterceptor.class})
 public interface IdentityClient {
 
     @GetMapping("/users/{id}")
     ApiResponse<UserResponse> getProfile(@PathVariable String id);
 
+    @PostMapping("/internal/users/fetch")
+    ApiResponse<List<UserResponse>> getBatchUsersInfo(@RequestBody List<String> ids);
+
 }
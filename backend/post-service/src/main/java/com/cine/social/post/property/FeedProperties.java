@@ -0,0 +1,17 @@
+package com.cine.social.post.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.feed")
+public class FeedProperties {
+    // Authors with at least this many followers are not fanned out on write, their posts are merged at read time
+    private long fanOutThreshold = 5000;
+    // Number of recent posts copied into the follower's inbox on FOLLOW
+    private int followBackfillSize = 50;
+}
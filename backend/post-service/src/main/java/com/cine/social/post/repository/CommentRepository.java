@@ -4,6 +4,7 @@ import com.cine.social.post.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +23,11 @@ public interface CommentRepository extends JpaRepository<Comment, String> {
         countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.parent.id = :parentId"
     )
     Page<Comment> findRepliesByParentId(@Param("parentId") String parentId, Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.parent.id = :parentId")
+    long countReplies(@Param("parentId") String parentId);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount - 1 WHERE c.id = :commentId AND c.replyCount > 0")
+    int decrementReplyCount(@Param("commentId") String commentId);
 }
@@ -3,7 +3,9 @@ package com.cine.social.post.repository;
 
 import com.cine.social.post.entity.Comment;
 import com.cine.social.post.entity.CommentVote;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +15,7 @@ import java.util.Optional;
 
 @Repository
 public interface CommentVoteRepository extends JpaRepository<CommentVote, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<CommentVote> findByUserIdAndComment(String userId, Comment comment);
 
     @Query("SELECT cv FROM CommentVote cv WHERE cv.userId = :userId AND cv.comment.id IN :commentIds")
@@ -0,0 +1,23 @@
+package com.cine.social.post.repository;
+
+import com.cine.social.post.entity.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+    // 1 when this caller claimed the migration, 0 when another replica already has
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO data_migrations (id, started_at) VALUES (:id, NOW())", nativeQuery = true)
+    int claim(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DataMigration m SET m.completedAt = CURRENT_TIMESTAMP WHERE m.id = :id")
+    int markCompleted(@Param("id") String id);
+}
@@ -0,0 +1,78 @@
+package com.cine.social.post.repository;
+
+import com.cine.social.post.entity.FeedItem;
+import com.cine.social.post.entity.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FeedItemRepository extends JpaRepository<FeedItem, String> {
+
+    @Query(value = "SELECT p FROM FeedItem f JOIN f.post p LEFT JOIN FETCH p.userProfile " +
+            "WHERE f.userId = :userId ORDER BY f.createdAt DESC",
+            countQuery = "SELECT count(f) FROM FeedItem f WHERE f.userId = :userId")
+    Page<Post> findFeedPosts(@Param("userId") String userId, Pageable pageable);
+
+    @Query("SELECT p FROM FeedItem f JOIN f.post p LEFT JOIN FETCH p.userProfile WHERE f.userId = :userId " +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY f.createdAt DESC, p.id DESC")
+    Slice<Post> findFeedPostSlice(@Param("userId") String userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") String id,
+                                  Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feed_items (id, user_id, post_id, author_id, created_at) " +
+            "SELECT UUID(), uf.follower_id, :postId, :authorId, :createdAt " +
+            "FROM user_follows uf WHERE uf.followed_id = :authorId", nativeQuery = true)
+    int fanOutToFollowers(@Param("postId") String postId,
+                          @Param("authorId") String authorId,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feed_items (id, user_id, post_id, author_id, created_at) " +
+            "SELECT UUID(), :followerId, p.id, p.user_id, p.created_at " +
+            "FROM posts p WHERE p.user_id = :authorId ORDER BY p.created_at DESC LIMIT :limit", nativeQuery = true)
+    int backfillFromAuthor(@Param("followerId") String followerId,
+                           @Param("authorId") String authorId,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feed_items (id, user_id, post_id, author_id, created_at) " +
+            "SELECT UUID(), :followerId, p.id, p.user_id, p.created_at " +
+            "FROM posts p WHERE p.user_id = :authorId AND p.created_at < :before " +
+            "ORDER BY p.created_at DESC LIMIT :limit", nativeQuery = true)
+    int backfillFromAuthorBefore(@Param("followerId") String followerId,
+                                 @Param("authorId") String authorId,
+                                 @Param("before") LocalDateTime before,
+                                 @Param("limit") int limit);
+
+    // Seeds every inbox with the latest posts of each followed author, for data that predates feed_items
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feed_items (id, user_id, post_id, author_id, created_at) " +
+            "SELECT UUID(), uf.follower_id, r.id, r.user_id, r.created_at FROM user_follows uf " +
+            "JOIN (SELECT p.id, p.user_id, p.created_at, " +
+            "ROW_NUMBER() OVER (PARTITION BY p.user_id ORDER BY p.created_at DESC) AS rn FROM posts p) r " +
+            "ON r.user_id = uf.followed_id WHERE r.rn <= :limit", nativeQuery = true)
+    int backfillAllFollows(@Param("limit") int limit);
+
+    // Copies the posts an author wrote while above the threshold once the author drops back below it
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feed_items (id, user_id, post_id, author_id, created_at) " +
+            "SELECT UUID(), uf.follower_id, p.id, p.user_id, p.created_at " +
+            "FROM user_follows uf JOIN posts p ON p.user_id = uf.followed_id " +
+            "WHERE uf.followed_id = :authorId AND p.created_at >= :since", nativeQuery = true)
+    int fanOutSince(@Param("authorId") String authorId, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM FeedItem f WHERE f.userId = :userId AND f.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") String userId, @Param("authorId") String authorId);
+}
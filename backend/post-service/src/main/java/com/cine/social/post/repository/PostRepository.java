@@ -6,11 +6,18 @@ import com.cine.social.post.constant.ResourceType;
 import com.cine.social.post.entity.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, String> {
@@ -19,17 +26,83 @@ public interface PostRepository extends JpaRepository<Post, String> {
     @EntityGraph(attributePaths = {"userProfile"})
     Page<Post> findAllByStatus(PostStatus status, Pageable pageable);
 
-    @Query(value = "SELECT p FROM Post p " +
-            "JOIN UserFollow uf ON p.userId = uf.followedId " + 
-            "WHERE uf.followerId = :currentUserId ",
-        countQuery = "SELECT count(p) FROM Post p " +
-        "JOIN UserFollow uf ON p.userId = uf.followedId " +
-        "WHERE uf.followerId = :currentUserId")
-    Page<Post> findFeedByUserId(@Param("currentUserId") String currentUserId, Pageable pageable);
-
     @EntityGraph(attributePaths = {"userProfile"})
     Page<Post> findAllByStatusAndResourceType(PostStatus status, ResourceType resourceType, Pageable pageable);
 
     @EntityGraph(attributePaths = {"userProfile"})
     Page<Post> findAllByUserIdAndStatus(String userId, PostStatus status, Pageable pageable);
+
+    // Posts written while their author was above the fan-out threshold, the older ones are in the inboxes
+    @Query(value = "SELECT p FROM Post p JOIN FETCH p.userProfile u WHERE p.userId IN :userIds " +
+            "AND p.createdAt >= u.celebritySince",
+            countQuery = "SELECT count(p) FROM Post p JOIN p.userProfile u WHERE p.userId IN :userIds " +
+                    "AND p.createdAt >= u.celebritySince")
+    Page<Post> findCelebrityPosts(@Param("userIds") Collection<String> userIds, Pageable pageable);
+
+    // Keyset pagination, rows strictly after the (createdAt, id) cursor in DESC order
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.userProfile WHERE p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findSliceByStatus(@Param("status") PostStatus status,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") String id,
+                                  Pageable pageable);
+
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.userProfile WHERE p.status = :status AND p.resourceType = :resourceType " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findSliceByStatusAndResourceType(@Param("status") PostStatus status,
+                                                 @Param("resourceType") ResourceType resourceType,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") String id,
+                                                 Pageable pageable);
+
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.userProfile WHERE p.userId = :userId " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findSliceByUserId(@Param("userId") String userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") String id,
+                                  Pageable pageable);
+
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.userProfile WHERE p.userId = :userId AND p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findSliceByUserIdAndStatus(@Param("userId") String userId,
+                                           @Param("status") PostStatus status,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") String id,
+                                           Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.userProfile u WHERE p.userId IN :userIds " +
+            "AND p.createdAt >= u.celebritySince " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findCelebrityPostSlice(@Param("userIds") Collection<String> userIds,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") String id,
+                                    Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") String postId, @Param("delta") int delta);
+
+    // Full export for search reindexing, keyset by id within the [afterId, toId) slice
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.userProfile WHERE p.status = :status " +
+            "AND p.id > :afterId AND (:toId IS NULL OR p.id < :toId) ORDER BY p.id")
+    List<Post> findExportSlice(@Param("status") PostStatus status,
+                               @Param("afterId") String afterId,
+                               @Param("toId") String toId,
+                               Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :lastId ORDER BY p.id")
+    List<String> findIdsAfter(@Param("lastId") String lastId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE posts p SET p.comment_count = " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+            "WHERE p.id IN (:postIds) AND p.comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)",
+            nativeQuery = true)
+    int reconcileCommentCounts(@Param("postIds") List<String> postIds);
 }
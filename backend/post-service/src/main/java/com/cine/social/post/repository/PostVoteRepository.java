@@ -3,7 +3,9 @@ package com.cine.social.post.repository;
 
 import com.cine.social.post.entity.Post;
 import com.cine.social.post.entity.PostVote;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +15,7 @@ import java.util.Optional;
 
 @Repository
 public interface PostVoteRepository extends JpaRepository<PostVote, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<PostVote> findByUserIdAndPost(String userId, Post post);
 
     @Query("SELECT pv FROM PostVote pv WHERE pv.userId = :userId AND pv.post.id IN :postIds")
@@ -2,12 +2,20 @@ package com.cine.social.post.repository;
 
 import com.cine.social.post.entity.UserFollow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserFollowRepository extends JpaRepository<UserFollow, String> {
     Optional<UserFollow> findByFollowerIdAndFollowedId(String followerId, String followedId);
     void deleteByFollowerIdAndFollowedId(String followerId, String followedId);
+    long countByFollowedId(String followedId);
+
+    @Query("SELECT uf.followedId FROM UserFollow uf, UserProfile up " +
+            "WHERE up.id = uf.followedId AND uf.followerId = :followerId AND up.celebritySince IS NOT NULL")
+    List<String> findFollowedCelebrityIds(@Param("followerId") String followerId);
 }
@@ -10,10 +10,42 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, String> {
     @Modifying
     @Transactional
     @Query("UPDATE UserProfile u SET u.firstName = :#{#e.firstName}, u.lastName = :#{#e.lastName}, u.imgUrl = :#{#e.imageUrl} WHERE u.id = :#{#e.userId}")
     int updateProfileIfExists(@Param("e") ProfileUpdatedEvent event);
+
+    @Modifying
+    // Clamped at zero, an UNFOLLOW replayed for a follow that predates the counter must not drive it negative
+    @Query("UPDATE UserProfile u SET u.followerCount = " +
+            "CASE WHEN u.followerCount + :delta < 0 THEN 0 ELSE u.followerCount + :delta END WHERE u.id = :userId")
+    int incrementFollowerCount(@Param("userId") String userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE user_profiles up SET up.follower_count = " +
+            "(SELECT COUNT(*) FROM user_follows uf WHERE uf.followed_id = up.id)", nativeQuery = true)
+    int recountFollowers();
+
+    @Modifying
+    @Query("UPDATE UserProfile u SET u.celebritySince = :now " +
+            "WHERE u.celebritySince IS NULL AND u.followerCount >= :threshold")
+    int markCelebrities(@Param("now") LocalDateTime now, @Param("threshold") long threshold);
+
+    @Modifying
+    @Query("UPDATE UserProfile u SET u.celebritySince = :now " +
+            "WHERE u.id = :userId AND u.celebritySince IS NULL AND u.followerCount >= :threshold")
+    int markCelebrity(@Param("userId") String userId,
+                      @Param("now") LocalDateTime now,
+                      @Param("threshold") long threshold);
+
+    @Modifying
+    @Query("UPDATE UserProfile u SET u.celebritySince = NULL " +
+            "WHERE u.id = :userId AND u.celebritySince = :since AND u.followerCount < :threshold")
+    int clearCelebrity(@Param("userId") String userId,
+                       @Param("since") LocalDateTime since,
+                       @Param("threshold") long threshold);
 }
\ No newline at end of file
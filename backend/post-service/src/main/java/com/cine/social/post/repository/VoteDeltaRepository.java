@@ -0,0 +1,17 @@
+package com.cine.social.post.repository;
+
+import com.cine.social.post.entity.VoteDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface VoteDeltaRepository extends JpaRepository<VoteDelta, Long> {
+    @Modifying
+    @Query("DELETE FROM VoteDelta v WHERE v.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,14 @@
+package com.cine.social.post.service;
+
+import com.cine.social.common.utils.CursorHelper;
+import com.cine.social.post.entity.Post;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface FeedService {
+    void fanOutPost(Post post);
+    void onFollow(String followerId, String followedId);
+    void onUnfollow(String followerId, String followedId);
+    Slice<Post> getFeed(String userId, Pageable pageable);
+    Slice<Post> getFeedSlice(String userId, CursorHelper.Cursor cursor, int size);
+}
@@ -2,7 +2,9 @@ package com.cine.social.post.service;
 
 
 
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.common.dto.response.PageResponse;
+import com.cine.social.event.PostOutboxEvent;
 import com.cine.social.post.dto.request.PostCreationRequest;
 import com.cine.social.post.dto.request.PostUpdateRequest;
 import com.cine.social.post.dto.response.PostResponse;
@@ -31,4 +33,16 @@ public interface PostService {
     PageResponse<List<PostResponse>> getPostsByUserId(String userId, int page, int size);
 
     PostResponse getPost(String postId);
+
+    CursorResponse<List<PostResponse>> getPostsByCursor(String cursor, int size);
+
+    CursorResponse<List<PostResponse>> getMyPostsByCursor(String cursor, int size);
+
+    CursorResponse<List<PostResponse>> getMyFeedByCursor(String cursor, int size);
+
+    CursorResponse<List<PostResponse>> getReelsByCursor(String cursor, int size);
+
+    CursorResponse<List<PostResponse>> getPostsByUserIdAndCursor(String userId, String cursor, int size);
+
+    List<PostOutboxEvent> exportPosts(String afterId, String toId, int size);
 }
@@ -0,0 +1,64 @@
+package com.cine.social.post.service.impl;
+
+import com.cine.social.post.repository.DataMigrationRepository;
+import com.cine.social.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommentCountReconciler {
+    private final static String BACKFILL_MIGRATION = "comment-count-backfill";
+
+    private final PostRepository postRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+
+    @Value("${app.comment-count.reconcile-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Backfills comment_count for posts created before the column. Runs once for the whole deployment: the replica that
+     * claims the migration row does the recount, a failed run releases the row so the next startup retries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        if (dataMigrationRepository.claim(BACKFILL_MIGRATION) == 0) {
+            return;
+        }
+        try {
+            reconcile();
+            dataMigrationRepository.markCompleted(BACKFILL_MIGRATION);
+        } catch (RuntimeException e) {
+            dataMigrationRepository.deleteById(BACKFILL_MIGRATION);
+            throw e;
+        }
+    }
+
+    @Scheduled(cron = "${app.comment-count.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        String lastId = "";
+        int scanned = 0;
+        int fixed = 0;
+
+        while (true) {
+            List<String> ids = postRepository.findIdsAfter(lastId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            fixed += postRepository.reconcileCommentCounts(ids);
+            scanned += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        log.info("Comment count reconciliation done, scanned {} posts, fixed {}", scanned, fixed);
+    }
+}
@@ -6,6 +6,7 @@ import com.cine.social.common.utils.PageHelper;
 import com.cine.social.common.utils.SecurityUtils;
 import com.cine.social.event.MinioFileDeletionEvent;
 import com.cine.social.post.constant.PostErrorCode;
+import com.cine.social.post.constant.VoteTarget;
 import com.cine.social.post.dto.request.CommentRequest;
 import com.cine.social.post.dto.response.CommentResponse;
 import com.cine.social.post.entity.Comment;
@@ -40,6 +41,7 @@ public class CommentServiceImpl implements CommentService {
     private final CommentMapper commentMapper;
     private final UserProfileService userProfileService;
     private final NotificationProducer notificationProducer;
+    private final VoteAggregator voteAggregator;
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final static String FILE_DELETION_TOPIC = "file-deletion-topic";
@@ -88,6 +90,7 @@ public class CommentServiceImpl implements CommentService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        postRepository.incrementCommentCount(post.getId(), 1);
 
         if (!savedComment.getAuthorId().equals(post.getUserId())) {
             notificationProducer.createAndSendingNotificationEvent(
@@ -120,9 +123,20 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional
     public void deleteComment(String commentId) {
         Comment comment = commentRepository.findById(commentId).orElseThrow(() -> new AppException(PostErrorCode.COMMENT_NOT_FOUND));
+
+        // Replies are flattened under the root comment, so deleting a root also removes its replies
+        int deletedCount = 1;
+        if (Objects.isNull(comment.getParent())) {
+            deletedCount += (int) commentRepository.countReplies(comment.getId());
+        } else {
+            commentRepository.decrementReplyCount(comment.getParent().getId());
+        }
+
         commentRepository.delete(comment);
+        postRepository.incrementCommentCount(comment.getPost().getId(), -deletedCount);
         deleteFileIfResourcePresent(comment);
     }
 
@@ -158,40 +172,33 @@ public class CommentServiceImpl implements CommentService {
         }
 
         Optional<CommentVote> existingVoteOpt = commentVoteRepository.findByUserIdAndComment(currentUserId, comment);
-        int currentVoteCount = comment.getVoteCount();
 
         if (existingVoteOpt.isPresent()) {
             CommentVote existingVote = existingVoteOpt.get();
             int oldValue = existingVote.getValue();
-
-            if (value == 0) {
-                commentVoteRepository.delete(existingVote);
-                comment.setVoteCount(currentVoteCount - oldValue);
-            } else if (oldValue != value) {
+            if (oldValue != value) {
                 existingVote.setValue(value);
                 commentVoteRepository.save(existingVote);
-                comment.setVoteCount(currentVoteCount - oldValue + value);
+                voteAggregator.record(VoteTarget.COMMENT, comment.getId(), value - oldValue);
             }
-        } else {
-            if (value != 0) {
-                CommentVote newVote = CommentVote.builder()
-                        .userId(currentUserId)
-                        .comment(comment)
-                        .value(value)
-                        .build();
-                commentVoteRepository.save(newVote);
-                comment.setVoteCount(currentVoteCount + value);
-                if (!comment.getAuthorId().equals(currentUserId)) {
-                    notificationProducer.createAndSendingNotificationEvent(
-                            currentUserId,
-                            comment.getPost().getId(),
-                            "VOTE_COMMENT",
-                            "vote your comment"
-                    );
-                }
+        } else if (value != 0) {
+            CommentVote newVote = CommentVote.builder()
+                    .userId(currentUserId)
+                    .comment(comment)
+                    .value(value)
+                    .build();
+            commentVoteRepository.save(newVote);
+            voteAggregator.record(VoteTarget.COMMENT, comment.getId(), value);
+            if (!comment.getAuthorId().equals(currentUserId)) {
+                notificationProducer.createAndSendingNotificationEvent(
+                        comment.getAuthorId(),
+                        comment.getPost().getId(),
+                        comment.getId(),
+                        "VOTE_COMMENT",
+                        "vote your comment"
+                );
             }
         }
-        commentRepository.save(comment);
     }
 
     private PageResponse<List<CommentResponse>>buildPageResponse(Page<Comment> pageData, int page, int size) {
@@ -225,6 +232,7 @@ public class CommentServiceImpl implements CommentService {
                 .pageSize(size)
                 .totalPage(pageData.getTotalPages())
                 .totalElement(pageData.getTotalElements())
+                .hasNext(pageData.hasNext())
                 .items(items)
                 .build();
     }
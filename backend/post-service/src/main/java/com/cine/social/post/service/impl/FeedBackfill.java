@@ -0,0 +1,41 @@
+package com.cine.social.post.service.impl;
+
+import com.cine.social.post.property.FeedProperties;
+import com.cine.social.post.repository.FeedItemRepository;
+import com.cine.social.post.repository.UserFollowRepository;
+import com.cine.social.post.repository.UserProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * One-time startup backfill for data that predates the feed inbox. Recounts follower_count from user_follows,
+ * marks authors already above the fan-out threshold and seeds feed_items with each followed author's recent posts.
+ * Only runs while feed_items is still empty, the inserts are idempotent so an interrupted run can simply repeat.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeedBackfill {
+    private final FeedItemRepository feedItemRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final FeedProperties feedProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (feedItemRepository.count() > 0 || userFollowRepository.count() == 0) {
+            return;
+        }
+        int recounted = userProfileRepository.recountFollowers();
+        int celebrities = userProfileRepository.markCelebrities(LocalDateTime.now(), feedProperties.getFanOutThreshold());
+        int items = feedItemRepository.backfillAllFollows(feedProperties.getFollowBackfillSize());
+        log.info("Feed backfill done, recounted {} profiles, {} read-merged authors, {} feed items", recounted, celebrities, items);
+    }
+}
@@ -0,0 +1,152 @@
+package com.cine.social.post.service.impl;
+
+import com.cine.social.common.utils.CursorHelper;
+import com.cine.social.post.entity.Post;
+import com.cine.social.post.entity.UserProfile;
+import com.cine.social.post.property.FeedProperties;
+import com.cine.social.post.repository.FeedItemRepository;
+import com.cine.social.post.repository.PostRepository;
+import com.cine.social.post.repository.UserFollowRepository;
+import com.cine.social.post.repository.UserProfileRepository;
+import com.cine.social.post.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.*;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedServiceImpl implements FeedService {
+    private final FeedItemRepository feedItemRepository;
+    private final PostRepository postRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final FeedProperties feedProperties;
+
+    @Override
+    public void fanOutPost(Post post) {
+        LocalDateTime celebritySince = celebritySince(post.getUserId());
+        // A post older than the crossing is not covered by the read-time merge, so it is still fanned out
+        if (Objects.nonNull(celebritySince) && !post.getCreatedAt().isBefore(celebritySince)) {
+            log.info("Skip fan-out for post {}, author {} is read-merged", post.getId(), post.getUserId());
+            return;
+        }
+        int inserted = feedItemRepository.fanOutToFollowers(post.getId(), post.getUserId(), post.getCreatedAt());
+        log.info("Fan-out post {} to {} inboxes", post.getId(), inserted);
+    }
+
+    @Override
+    public void onFollow(String followerId, String followedId) {
+        userProfileRepository.incrementFollowerCount(followedId, 1);
+        int limit = feedProperties.getFollowBackfillSize();
+        if (updateCelebrity(followedId)) {
+            // Posts since the crossing come from the read-time merge, only the older ones need an inbox copy
+            LocalDateTime since = celebritySince(followedId);
+            if (Objects.nonNull(since)) {
+                feedItemRepository.backfillFromAuthorBefore(followerId, followedId, since, limit);
+            }
+            return;
+        }
+        feedItemRepository.backfillFromAuthor(followerId, followedId, limit);
+    }
+
+    @Override
+    public void onUnfollow(String followerId, String followedId) {
+        userProfileRepository.incrementFollowerCount(followedId, -1);
+        updateCelebrity(followedId);
+        feedItemRepository.deleteByUserIdAndAuthorId(followerId, followedId);
+    }
+
+    /**
+     * Offset page of the feed. The merged feed has no cheap exact count, inbox and read-merged posts overlap, so the
+     * result only says whether another page exists.
+     */
+    @Override
+    public Slice<Post> getFeed(String userId, Pageable pageable) {
+        List<String> celebrityIds = userFollowRepository.findFollowedCelebrityIds(userId);
+
+        if (celebrityIds.isEmpty()) {
+            Page<Post> inbox = feedItemRepository.findFeedPosts(userId, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+            return new SliceImpl<>(inbox.getContent(), pageable, inbox.hasNext());
+        }
+
+        // Merge the inbox with posts of high-follower authors that were never fanned out
+        int limit = (int) pageable.getOffset() + pageable.getPageSize();
+        Page<Post> inbox = feedItemRepository.findFeedPosts(userId, PageRequest.of(0, limit));
+        Page<Post> celebrityPosts = postRepository.findCelebrityPosts(celebrityIds,
+                PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        List<Post> merged = merge(inbox.getContent(), celebrityPosts.getContent());
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(limit, merged.size());
+        boolean hasNext = inbox.hasNext() || celebrityPosts.hasNext() || merged.size() > limit;
+        return new SliceImpl<>(merged.subList(from, to), pageable, hasNext);
+    }
+
+    @Override
+    public Slice<Post> getFeedSlice(String userId, CursorHelper.Cursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Post> inbox = feedItemRepository.findFeedPostSlice(userId, cursor.createdAt(), cursor.id(), pageable);
+
+        List<String> celebrityIds = userFollowRepository.findFollowedCelebrityIds(userId);
+        if (celebrityIds.isEmpty()) {
+            return inbox;
+        }
+
+        Slice<Post> celebrityPosts = postRepository.findCelebrityPostSlice(celebrityIds, cursor.createdAt(), cursor.id(), pageable);
+        List<Post> merged = merge(inbox.getContent(), celebrityPosts.getContent());
+
+        boolean hasNext = inbox.hasNext() || celebrityPosts.hasNext() || merged.size() > size;
+        return new SliceImpl<>(merged.subList(0, Math.min(size, merged.size())), pageable, hasNext);
+    }
+
+    // A post fanned out before its author crossed the threshold can also come back from the read-time merge
+    private List<Post> merge(List<Post> inbox, List<Post> celebrityPosts) {
+        Map<String, Post> byId = new LinkedHashMap<>();
+        inbox.forEach(post -> byId.putIfAbsent(post.getId(), post));
+        celebrityPosts.forEach(post -> byId.putIfAbsent(post.getId(), post));
+        List<Post> merged = new ArrayList<>(byId.values());
+        merged.sort(Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed());
+        return merged;
+    }
+
+    /**
+     * Moves the author across the fan-out threshold after a follower count change. Crossing upward starts the
+     * read-time window, crossing back down fans the posts of that window out so none of them drop out of the feeds.
+     * Returns whether the author is read-merged now.
+     */
+    private boolean updateCelebrity(String authorId) {
+        UserProfile profile = userProfileRepository.findById(authorId).orElse(null);
+        if (Objects.isNull(profile)) {
+            return false;
+        }
+        long threshold = feedProperties.getFanOutThreshold();
+        LocalDateTime since = profile.getCelebritySince();
+        if (Objects.isNull(since)) {
+            return profile.getFollowerCount() >= threshold
+                    && userProfileRepository.markCelebrity(authorId, LocalDateTime.now(), threshold) == 1;
+        }
+        if (profile.getFollowerCount() < threshold && userProfileRepository.clearCelebrity(authorId, since, threshold) == 1) {
+            int inserted = feedItemRepository.fanOutSince(authorId, since);
+            log.info("Author {} dropped below the fan-out threshold, fanned out {} feed items", authorId, inserted);
+            return false;
+        }
+        return true;
+    }
+
+    private LocalDateTime celebritySince(String userId) {
+        return userProfileRepository.findById(userId)
+                .map(UserProfile::getCelebritySince)
+                .orElse(null);
+    }
+}
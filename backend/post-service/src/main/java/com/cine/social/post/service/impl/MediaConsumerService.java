@@ -3,6 +3,7 @@ package com.cine.social.post.service.impl;
 import com.cine.social.event.MediaProcessedEvent;
 import com.cine.social.post.constant.PostStatus;
 import com.cine.social.post.entity.Post;
+import com.cine.social.post.entity.VideoRendition;
 import com.cine.social.post.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,9 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Objects;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -28,9 +32,17 @@ public class MediaConsumerService {
             return;
         }
 
+        // A late FAILED from a duplicate job must not unpublish a post another run already finished
+        if (PostStatus.PUBLISHED.equals(post.getStatus()) && !"DONE".equals(event.getStatus())) {
+            log.info("Ignoring {} result for already published post {}", event.getStatus(), post.getId());
+            return;
+        }
+
         if ("DONE".equals(event.getStatus())) {
             post.setStatus(PostStatus.PUBLISHED);
             post.setResourceUrl(event.getProcessedUrl());
+            post.setHlsMasterUrl(event.getMasterPlaylistUrl());
+            post.setRenditions(toRenditions(event.getRenditions()));
             log.info("Post {} published successfully with new URL: {}", post.getId(), event.getProcessedUrl());
         } else {
             post.setStatus(PostStatus.MEDIA_FAILED);
@@ -39,4 +51,19 @@ public class MediaConsumerService {
 
         postRepository.save(post);
     }
-}
\ No newline at end of file
+
+    private List<VideoRendition> toRenditions(List<MediaProcessedEvent.Rendition> renditions) {
+        if (Objects.isNull(renditions)) {
+            return null;
+        }
+        return renditions.stream()
+                .map(rendition -> VideoRendition.builder()
+                        .name(rendition.getName())
+                        .width(rendition.getWidth())
+                        .height(rendition.getHeight())
+                        .bandwidth(rendition.getBandwidth())
+                        .playlistUrl(rendition.getPlaylistUrl())
+                        .build())
+                .toList();
+    }
+}
@@ -1,30 +1,128 @@
 package com.cine.social.post.service.impl;
 
 
+import com.cine.social.common.cache.ProfileCache;
 import com.cine.social.common.utils.SecurityUtils;
 import com.cine.social.event.NotificationEvent;
 import com.cine.social.post.entity.UserProfile;
-import com.cine.social.post.repository.UserProfileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Notifications are queued on the request thread and sent by a single background worker,
+ * which drops duplicates of the same actor/recipient/resource/comment/type inside the coalescing window.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationProducer {
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final UserProfileRepository userProfileRepository;
+    private final ProfileCache<UserProfile> userProfileCache;
     private static final String NOTIFICATION_TOPIC = "notification-topic";
 
+    @Value("${app.notification.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notification.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notification.coalesce-window-ms:10000}")
+    private long coalesceWindowMs;
+
+    private BlockingQueue<PendingNotification> queue;
+    // Only touched by the worker thread
+    private final Map<String, Long> recentlySent = new HashMap<>();
+    private Thread worker;
+    private volatile boolean running;
+
     public void createAndSendingNotificationEvent(String recipientId, String resourceId, String type, String message){
+        createAndSendingNotificationEvent(recipientId, resourceId, null, type, message);
+    }
+
+    public void createAndSendingNotificationEvent(String recipientId, String resourceId, String commentId, String type, String message){
         String actorId = SecurityUtils.getCurrentUserId();
+        PendingNotification pending = new PendingNotification(actorId, recipientId, resourceId, commentId, type, message);
+        if (!queue.offer(pending)) {
+            log.warn("Notification queue is full, dropping {} notification for {}", type, recipientId);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::drainLoop, "notification-producer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drainLoop() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingNotification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to send notification batch", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
 
-        UserProfile actorProfile = userProfileRepository.findById(actorId).orElseGet(UserProfile::new);
+    private void sendBatch(List<PendingNotification> batch) {
+        long now = System.currentTimeMillis();
+        recentlySent.values().removeIf(sentAt -> now - sentAt > coalesceWindowMs);
+
+        for (PendingNotification pending : batch) {
+            if (Objects.nonNull(recentlySent.putIfAbsent(pending.coalesceKey(), now))) {
+                continue;
+            }
+
+            UserProfile actorProfile = Optional.ofNullable(userProfileCache.get(pending.actorId()))
+                    .orElseGet(UserProfile::new);
+
+            NotificationEvent event = NotificationEvent.builder()
+                    .actorId(pending.actorId())
+                    .actorName(getActorName(actorProfile))
+                    .actorImgUrl(actorProfile.getImgUrl())
+                    .recipientId(pending.recipientId())
+                    .resourceId(pending.resourceId())
+                    .commentId(pending.commentId())
+                    .type(pending.type())
+                    .message(pending.message())
+                    .build();
+
+            sendNotificationEvent(event);
+        }
+    }
+
+    private String getActorName(UserProfile actorProfile) {
         String actorFirstName = Objects.nonNull(actorProfile.getFirstName()) ? actorProfile.getFirstName() : "";
         String actorLastName = Objects.nonNull(actorProfile.getLastName()) ? actorProfile.getLastName() : "";
         String actorName = "Cine Social";
@@ -32,26 +130,18 @@ public class NotificationProducer {
         if(StringUtils.hasText(actorFirstName) || StringUtils.hasText(actorLastName)){
             actorName = String.format("%s %s", actorFirstName, actorLastName);
         }
-
-        NotificationEvent event = NotificationEvent.builder()
-                .actorId(actorId)
-                .actorName(actorName)
-                .actorImgUrl(actorProfile.getImgUrl())
-                .recipientId(recipientId)
-                .resourceId(resourceId)
-                .type(type)
-                .message(message)
-                .build();
-
-        sendNotificationEvent(event);
-
-
+        return actorName;
     }
 
     private void sendNotificationEvent(NotificationEvent notificationEvent){
-      log.info("Sending notification event {}", notificationEvent.getMessage());
-      kafkaTemplate.send(NOTIFICATION_TOPIC, notificationEvent);
+      log.debug("Sending notification event {}", notificationEvent.getMessage());
+      kafkaTemplate.send(NOTIFICATION_TOPIC, notificationEvent.getRecipientId(), notificationEvent);
     }
 
-
+    private record PendingNotification(String actorId, String recipientId, String resourceId, String commentId,
+                                       String type, String message) {
+        String coalesceKey() {
+            return actorId + ":" + recipientId + ":" + resourceId + ":" + commentId + ":" + type;
+        }
+    }
 }
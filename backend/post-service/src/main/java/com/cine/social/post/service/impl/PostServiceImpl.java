@@ -1,8 +1,11 @@
 package com.cine.social.post.service.impl;
 
+import com.cine.social.common.cache.ProfileCache;
+import com.cine.social.common.dto.response.CursorResponse;
 import com.cine.social.common.dto.response.PageResponse;
 import com.cine.social.common.exception.AppException;
 import com.cine.social.common.exception.CommonErrorCode;
+import com.cine.social.common.utils.CursorHelper;
 import com.cine.social.common.utils.PageHelper;
 import com.cine.social.common.utils.SecurityUtils;
 import com.cine.social.event.MinioFileDeletionEvent;
@@ -12,6 +15,7 @@ import com.cine.social.event.PostOutboxEvent;
 import com.cine.social.post.constant.PostErrorCode;
 import com.cine.social.post.constant.PostStatus;
 import com.cine.social.post.constant.ResourceType;
+import com.cine.social.post.constant.VoteTarget;
 import com.cine.social.post.controller.PostController;
 import com.cine.social.post.dto.request.PostCreationRequest;
 import com.cine.social.post.dto.request.PostUpdateRequest;
@@ -24,7 +28,7 @@ import com.cine.social.post.mapper.PostMapper;
 import com.cine.social.post.repository.OutboxEventRepository;
 import com.cine.social.post.repository.PostRepository;
 import com.cine.social.post.repository.PostVoteRepository;
-import com.cine.social.post.repository.UserProfileRepository;
+import com.cine.social.post.service.FeedService;
 import com.cine.social.post.service.PostService;
 import com.cine.social.post.service.UserProfileService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -33,7 +37,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -53,13 +59,16 @@ public class PostServiceImpl implements PostService {
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final UserProfileService userProfileService;
     private final NotificationProducer notificationProducer;
-    private final UserProfileRepository userProfileRepository;
+    private final ProfileCache<UserProfile> userProfileCache;
     private final ObjectMapper objectMapper;
     private final OutboxEventRepository outboxEventRepository;
+    private final FeedService feedService;
+    private final VoteAggregator voteAggregator;
     private final static String POST_TOPIC = "post-created-topic";
     private final static String FILE_DELETION_TOPIC = "file-deletion-topic";
 
     @Override
+    @Transactional
     public void votePost(String postId, int value) {
         String currentUserId = SecurityUtils.getCurrentUserId();
         Post post = findPostByIdOrThrowException(postId);
@@ -68,43 +77,35 @@ public class PostServiceImpl implements PostService {
             throw new AppException(PostErrorCode.INVALID_VOTE_VALUE);
         }
 
+        // Vote rows are kept with value 0 on un-vote so every change is a single idempotent row update
         Optional<PostVote> existingVoteOpt = postVoteRepository.findByUserIdAndPost(currentUserId, post);
-        int currentVoteCount = post.getVoteCount();
 
         if (existingVoteOpt.isPresent()) {
             PostVote existingVote = existingVoteOpt.get();
             int oldValue = existingVote.getValue();
-
-            if (value == 0) {
-                postVoteRepository.delete(existingVote);
-                post.setVoteCount(currentVoteCount - oldValue);
-            } else if (oldValue != value) {
+            if (oldValue != value) {
                 existingVote.setValue(value);
                 postVoteRepository.save(existingVote);
-                post.setVoteCount(currentVoteCount - oldValue + value);
+                voteAggregator.record(VoteTarget.POST, post.getId(), value - oldValue);
             }
-        } else {
-            if (value != 0) {
-                PostVote newVote = PostVote.builder()
-                        .userId(currentUserId)
-                        .post(post)
-                        .value(value)
-                        .build();
-                postVoteRepository.save(newVote);
-                post.setVoteCount(currentVoteCount + value);
-
-                if (!post.getUserId().equals(currentUserId)) {
-                    notificationProducer.createAndSendingNotificationEvent(
-                            currentUserId,
-                            post.getId(),
-                            "VOTE_POST",
-                            "vote your post"
-                    );
-                }
+        } else if (value != 0) {
+            PostVote newVote = PostVote.builder()
+                    .userId(currentUserId)
+                    .post(post)
+                    .value(value)
+                    .build();
+            postVoteRepository.save(newVote);
+            voteAggregator.record(VoteTarget.POST, post.getId(), value);
+
+            if (!post.getUserId().equals(currentUserId)) {
+                notificationProducer.createAndSendingNotificationEvent(
+                        post.getUserId(),
+                        post.getId(),
+                        "VOTE_POST",
+                        "vote your post"
+                );
             }
         }
-
-        postRepository.save(post);
     }
 
     @Override
@@ -157,7 +158,7 @@ public class PostServiceImpl implements PostService {
         }
 
         createOutBoxEvent(savedPost.getId(), savedPost, currentUserId, "UPSERT_POST");
-
+        feedService.fanOutPost(savedPost);
 
         return postMapper.toResponse(savedPost);
     }
@@ -173,6 +174,10 @@ public class PostServiceImpl implements PostService {
         if(!post.getResourceType().equals(ResourceType.VIDEO)){
             throw new AppException(PostErrorCode.INVALID_RESOURCE_DATA);
         }
+        // The raw upload is gone once transcoding succeeded, a retry could only fail
+        if(PostStatus.PUBLISHED.equals(post.getStatus())){
+            throw new AppException(PostErrorCode.POST_ALREADY_PUBLISHED);
+        }
 
         post.setStatus(PostStatus.PENDING_MEDIA);
         postRepository.save(post);
@@ -183,9 +188,9 @@ public class PostServiceImpl implements PostService {
     @Override
     public PageResponse<List<PostResponse>> getMyFeed(int page, int size) {
         String currentUserId = SecurityUtils.getCurrentUserId();
-        Pageable pageable = PageHelper.pageEngine(page, size, "createdAt:desc");
-        Page<Post> postsPage = postRepository.findFeedByUserId(currentUserId, pageable);
-        return buildPostPageResponse(postsPage, page, size, currentUserId);
+        Pageable pageable = PageHelper.pageEngine(page, size);
+        Slice<Post> feedSlice = feedService.getFeed(currentUserId, pageable);
+        return buildFeedPageResponse(feedSlice, page, size, currentUserId);
     }
 
     @Override
@@ -211,6 +216,57 @@ public class PostServiceImpl implements PostService {
     }
 
 
+    @Override
+    public CursorResponse<List<PostResponse>> getPostsByCursor(String cursor, int size) {
+        String currentUserId = getCurrentUserIdOrNull();
+        CursorHelper.Cursor c = CursorHelper.decode(cursor);
+        Slice<Post> slice = postRepository.findSliceByStatus(PostStatus.PUBLISHED, c.createdAt(), c.id(), PageRequest.of(0, size));
+        return buildPostCursorResponse(slice, size, currentUserId);
+    }
+
+    @Override
+    public CursorResponse<List<PostResponse>> getMyPostsByCursor(String cursor, int size) {
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        CursorHelper.Cursor c = CursorHelper.decode(cursor);
+        Slice<Post> slice = postRepository.findSliceByUserId(currentUserId, c.createdAt(), c.id(), PageRequest.of(0, size));
+        return buildPostCursorResponse(slice, size, currentUserId);
+    }
+
+    @Override
+    public CursorResponse<List<PostResponse>> getMyFeedByCursor(String cursor, int size) {
+        String currentUserId = SecurityUtils.getCurrentUserId();
+        Slice<Post> slice = feedService.getFeedSlice(currentUserId, CursorHelper.decode(cursor), size);
+        return buildPostCursorResponse(slice, size, currentUserId);
+    }
+
+    @Override
+    public CursorResponse<List<PostResponse>> getReelsByCursor(String cursor, int size) {
+        String currentUserId = getCurrentUserIdOrNull();
+        CursorHelper.Cursor c = CursorHelper.decode(cursor);
+        Slice<Post> slice = postRepository.findSliceByStatusAndResourceType(
+                PostStatus.PUBLISHED, ResourceType.VIDEO, c.createdAt(), c.id(), PageRequest.of(0, size));
+        return buildPostCursorResponse(slice, size, currentUserId);
+    }
+
+    @Override
+    public CursorResponse<List<PostResponse>> getPostsByUserIdAndCursor(String userId, String cursor, int size) {
+        String currentUserId = getCurrentUserIdOrNull();
+        CursorHelper.Cursor c = CursorHelper.decode(cursor);
+        Slice<Post> slice = postRepository.findSliceByUserIdAndStatus(
+                userId, PostStatus.PUBLISHED, c.createdAt(), c.id(), PageRequest.of(0, size));
+        return buildPostCursorResponse(slice, size, currentUserId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostOutboxEvent> exportPosts(String afterId, String toId, int size) {
+        List<Post> posts = postRepository.findExportSlice(
+                PostStatus.PUBLISHED, Objects.nonNull(afterId) ? afterId : "", toId, PageRequest.of(0, size));
+        return posts.stream()
+                .map(post -> toPostOutboxEvent(post, post.getUserProfile()))
+                .toList();
+    }
+
     private void createAndSendEvent(String postId, String resourceUrl){
         PostCreatedEvent event = PostCreatedEvent.builder()
                 .postId(postId)
@@ -244,28 +300,10 @@ public class PostServiceImpl implements PostService {
     private void createOutBoxEvent(String postId, Post post, String userId, String eventType){
         PostOutboxEvent postOutboxEvent;
         if(Objects.nonNull(post)) {
-            String userFullName = "Cine Social";
-            String authorAvatar = null;
-
-            if (StringUtils.hasText(userId)) {
-                UserProfile userProfile = userProfileRepository.findById(userId).orElseGet(UserProfile::new);
-                userFullName = getUserFullName(userProfile.getFirstName(), userProfile.getLastName());
-                authorAvatar = userProfile.getImgUrl();
-            }
-
-                 postOutboxEvent = PostOutboxEvent.builder()
-                                    .id(post.getId())
-                                    .title(post.getTitle())
-                                    .content(post.getContent())
-                                    .resourceUrl(post.getResourceUrl())
-                                    .resourceType(post.getResourceType().name())
-                                    .authorId(userId)
-                                    .authorName(userFullName)
-                                    .authorAvatar(authorAvatar)
-                                    .commentCount(post.getCommentCount())
-                                    .voteCount(post.getVoteCount())
-                                    .createdAt(post.getCreatedAt().toString())
-                                    .build();
+            UserProfile userProfile = StringUtils.hasText(userId)
+                    ? Optional.ofNullable(userProfileCache.get(userId)).orElseGet(UserProfile::new)
+                    : null;
+            postOutboxEvent = toPostOutboxEvent(post, userProfile);
         } else {
             postOutboxEvent = PostOutboxEvent.builder()
                     .id(postId)
@@ -287,6 +325,30 @@ public class PostServiceImpl implements PostService {
 
     }
 
+    private PostOutboxEvent toPostOutboxEvent(Post post, UserProfile userProfile){
+        String userFullName = "Cine Social";
+        String authorAvatar = null;
+
+        if (Objects.nonNull(userProfile)) {
+            userFullName = getUserFullName(userProfile.getFirstName(), userProfile.getLastName());
+            authorAvatar = userProfile.getImgUrl();
+        }
+
+        return PostOutboxEvent.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .resourceUrl(post.getResourceUrl())
+                .resourceType(post.getResourceType().name())
+                .authorId(post.getUserId())
+                .authorName(userFullName)
+                .authorAvatar(authorAvatar)
+                .commentCount(post.getCommentCount())
+                .voteCount(post.getVoteCount())
+                .createdAt(post.getCreatedAt().toString())
+                .build();
+    }
+
     private String getUserFullName(String firstName, String lastName){
         String actorFirstName = Objects.nonNull(firstName) ? firstName : "";
         String actorLastName = Objects.nonNull(lastName) ? lastName : "";
@@ -306,6 +368,12 @@ public class PostServiceImpl implements PostService {
                     .build();
             kafkaTemplate.send(FILE_DELETION_TOPIC, event);
         }
+        // media-service removes the whole HLS package when given its master playlist
+        if(Strings.isNotBlank(post.getHlsMasterUrl())) {
+            kafkaTemplate.send(FILE_DELETION_TOPIC, MinioFileDeletionEvent.builder()
+                    .objectName(post.getHlsMasterUrl())
+                    .build());
+        }
     }
 
     
@@ -315,8 +383,45 @@ public class PostServiceImpl implements PostService {
     }
 
     private PageResponse<List<PostResponse>> buildPostPageResponse(Page<Post> postsPage, int page, int size, String currentUserId) {
-        List<Post> posts = postsPage.getContent();
+        return PageResponse.<List<PostResponse>>builder()
+                .pageNo(page)
+                .pageSize(size)
+                .totalPage(postsPage.getTotalPages())
+                .totalElement(postsPage.getTotalElements())
+                .hasNext(postsPage.hasNext())
+                .items(toPostResponses(postsPage.getContent(), currentUserId))
+                .build();
+    }
+
+    // The feed has no exact count, totals only cover what has been paged through plus one page when more exist
+    private PageResponse<List<PostResponse>> buildFeedPageResponse(Slice<Post> feedSlice, int page, int size, String currentUserId) {
+        return PageResponse.<List<PostResponse>>builder()
+                .pageNo(page)
+                .pageSize(size)
+                .totalPage(feedSlice.hasNext() ? page + 1 : page)
+                .totalElement(feedSlice.getPageable().getOffset() + feedSlice.getNumberOfElements())
+                .hasNext(feedSlice.hasNext())
+                .items(toPostResponses(feedSlice.getContent(), currentUserId))
+                .build();
+    }
 
+    private CursorResponse<List<PostResponse>> buildPostCursorResponse(Slice<Post> slice, int size, String currentUserId) {
+        List<Post> posts = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !posts.isEmpty()) {
+            Post last = posts.get(posts.size() - 1);
+            nextCursor = CursorHelper.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorResponse.<List<PostResponse>>builder()
+                .pageSize(size)
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .items(toPostResponses(posts, currentUserId))
+                .build();
+    }
+
+    private List<PostResponse> toPostResponses(List<Post> posts, String currentUserId) {
         Map<String, Integer> userVotesMap = new HashMap<>();
         if (currentUserId != null && !posts.isEmpty()) {
             List<String> postIds = posts.stream().map(Post::getId).toList();
@@ -327,19 +432,11 @@ public class PostServiceImpl implements PostService {
             }
         }
 
-        List<PostResponse> responseItems = posts.stream().map(post -> {
+        return posts.stream().map(post -> {
             PostResponse res = postMapper.toResponse(post);
             res.setUserVoteValue(userVotesMap.getOrDefault(post.getId(), 0));
             return res;
         }).toList();
-
-        return PageResponse.<List<PostResponse>>builder()
-                .pageNo(page)
-                .pageSize(size)
-                .totalPage(postsPage.getTotalPages())
-                .totalElement(postsPage.getTotalElements())
-                .items(responseItems)
-                .build();
     }
 
     private void validateResourceIntegrity(PostCreationRequest request) {
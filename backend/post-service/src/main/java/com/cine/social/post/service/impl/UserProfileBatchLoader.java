@@ -0,0 +1,156 @@
+package com.cine.social.post.service.impl;
+
+import com.cine.social.common.cache.ProfileCache;
+import com.cine.social.post.dto.response.UserResponse;
+import com.cine.social.post.entity.UserProfile;
+import com.cine.social.post.httpclient.IdentityClient;
+import com.cine.social.post.repository.UserFollowRepository;
+import com.cine.social.post.repository.UserProfileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces profile misses: one in-flight fetch per user id, and ids requested within the batch window
+ * are fetched together from identity-service's /internal/users/fetch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserProfileBatchLoader {
+    private final IdentityClient identityClient;
+    private final UserProfileRepository userProfileRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final ProfileCache<UserProfile> userProfileCache;
+
+    @Value("${app.profile-loader.batch-window-ms:5}")
+    private long batchWindowMs;
+
+    @Value("${app.profile-loader.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${app.profile-loader.fetch-threads:4}")
+    private int fetchThreads;
+
+    private final Map<String, CompletableFuture<UserProfile>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<String> pending = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService fetchExecutor;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("profile-loader-timer"));
+        fetchExecutor = Executors.newFixedThreadPool(fetchThreads, daemonThreadFactory("profile-loader-fetch"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdown();
+    }
+
+    public CompletableFuture<UserProfile> load(String userId) {
+        CompletableFuture<UserProfile> created = new CompletableFuture<>();
+        CompletableFuture<UserProfile> existing = inFlight.putIfAbsent(userId, created);
+        if (Objects.nonNull(existing)) {
+            return existing;
+        }
+        enqueue(userId);
+        return created;
+    }
+
+    private void enqueue(String userId) {
+        List<String> ready = null;
+        synchronized (lock) {
+            pending.add(userId);
+            if (pending.size() == 1) {
+                scheduler.schedule(this::flushPending, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                ready = pending;
+                pending = new ArrayList<>();
+            }
+        }
+        if (Objects.nonNull(ready)) {
+            dispatch(ready);
+        }
+    }
+
+    private void flushPending() {
+        List<String> ready;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = pending;
+            pending = new ArrayList<>();
+        }
+        dispatch(ready);
+    }
+
+    private void dispatch(List<String> userIds) {
+        try {
+            fetchExecutor.execute(() -> fetch(userIds));
+        } catch (RejectedExecutionException e) {
+            complete(userIds, Map.of(), e);
+        }
+    }
+
+    private void fetch(List<String> userIds) {
+        try {
+            var response = identityClient.getBatchUsersInfo(userIds);
+            List<UserResponse> data = Objects.nonNull(response) && Objects.nonNull(response.getData())
+                    ? response.getData() : List.of();
+
+            List<UserProfile> profiles = data.stream()
+                    .map(profileData -> UserProfile.builder()
+                            .id(profileData.getId())
+                            .firstName(profileData.getFirstName())
+                            .lastName(profileData.getLastName())
+                            .imgUrl(profileData.getImgUrl())
+                            .followerCount(userFollowRepository.countByFollowedId(profileData.getId()))
+                            .build())
+                    .toList();
+
+            Map<String, UserProfile> saved = userProfileRepository.saveAll(profiles).stream()
+                    .collect(Collectors.toMap(UserProfile::getId, Function.identity()));
+            saved.forEach(userProfileCache::put);
+            log.info("Fetched {} of {} missing user profiles from Identity Service", saved.size(), userIds.size());
+            complete(userIds, saved, null);
+        } catch (Exception e) {
+            log.error("Failed to fetch user profiles for {}", userIds, e);
+            complete(userIds, Map.of(), e);
+        }
+    }
+
+    private void complete(List<String> userIds, Map<String, UserProfile> profiles, Throwable error) {
+        for (String userId : userIds) {
+            CompletableFuture<UserProfile> future = inFlight.remove(userId);
+            if (Objects.isNull(future)) {
+                continue;
+            }
+            if (Objects.nonNull(error)) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(profiles.get(userId));
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -5,6 +5,7 @@ import com.cine.social.event.UserFollowOutboxEvent;
 import com.cine.social.post.entity.UserFollow;
 import com.cine.social.post.repository.UserFollowRepository;
 import com.cine.social.post.repository.UserProfileRepository;
+import com.cine.social.post.service.FeedService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ public class UserProfileConsumerService {
     private final UserProfileRepository userProfileRepository;
     private final UserFollowRepository userFollowRepository;
     private final ObjectMapper objectMapper;
+    private final FeedService feedService;
 
     @KafkaListener(
             topics = "PROFILE_UPDATED",
@@ -70,10 +72,14 @@ public class UserProfileConsumerService {
                             .followedId(event.getFollowedId())
                             .build();
                     userFollowRepository.save(userFollow);
+                    feedService.onFollow(event.getFollowerId(), event.getFollowedId());
                     log.info("Created user follow: {} -> {}", event.getFollowerId(), event.getFollowedId());
                 }
             } else if ("UNFOLLOW".equals(event.getAction())) {
-                userFollowRepository.deleteByFollowerIdAndFollowedId(event.getFollowerId(), event.getFollowedId());
+                if (userFollowRepository.findByFollowerIdAndFollowedId(event.getFollowerId(), event.getFollowedId()).isPresent()) {
+                    userFollowRepository.deleteByFollowerIdAndFollowedId(event.getFollowerId(), event.getFollowedId());
+                    feedService.onUnfollow(event.getFollowerId(), event.getFollowedId());
+                }
                 log.info("Deleted user follow: {} -> {}", event.getFollowerId(), event.getFollowedId());
             }
 
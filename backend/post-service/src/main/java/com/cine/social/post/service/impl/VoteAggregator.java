@@ -0,0 +1,150 @@
+package com.cine.social.post.service.impl;
+
+import com.cine.social.post.constant.VoteTarget;
+import com.cine.social.post.entity.VoteDelta;
+import com.cine.social.post.repository.VoteDeltaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Write-behind vote counter. Every vote change is journaled in vote_deltas inside the voting transaction,
+ * buffered in memory after commit and applied as batched increments. The flush deletes the journal rows it
+ * applied in the same transaction, rows left behind by a crashed or failed flush are replayed by {@link #replay()}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteAggregator {
+    private final VoteDeltaRepository voteDeltaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<VoteTarget, VoteCounterBuffer> buffers = createBuffers();
+
+    @Value("${app.vote.replay-grace-ms:10000}")
+    private long replayGraceMs;
+
+    @Value("${app.vote.replay-batch-size:1000}")
+    private int replayBatchSize;
+
+    public void record(VoteTarget target, String targetId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        VoteDelta journal = voteDeltaRepository.save(VoteDelta.builder()
+                .targetType(target)
+                .targetId(targetId)
+                .delta(delta)
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                buffers.get(target).add(targetId, delta, journal.getId());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.vote.flush-interval-ms:500}")
+    public void flush() {
+        for (VoteTarget target : VoteTarget.values()) {
+            VoteCounterBuffer.Drained drained = buffers.get(target).drain();
+            if (drained.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    int deleted = deleteJournal(drained.journalIds());
+                    if (deleted != drained.journalIds().size()) {
+                        // Part of the batch was already replayed, leave the remainder to the replay job
+                        log.warn("Vote flush for {} found {} of {} journal rows, deferring to replay",
+                                target, deleted, drained.journalIds().size());
+                        status.setRollbackOnly();
+                        return;
+                    }
+                    applyDeltas(target, drained.deltas());
+                });
+            } catch (Exception e) {
+                log.error("Failed to flush {} vote deltas for {}, they will be replayed from the journal",
+                        drained.journalIds().size(), target, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.vote.replay-interval-ms:30000}")
+    public void replay() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusNanos(replayGraceMs * 1_000_000));
+        int replayed;
+        do {
+            Integer count = transactionTemplate.execute(status -> replayBatch(cutoff));
+            replayed = Objects.requireNonNullElse(count, 0);
+            if (replayed > 0) {
+                log.info("Replayed {} journaled vote deltas", replayed);
+            }
+        } while (replayed == replayBatchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private int replayBatch(Timestamp cutoff) {
+        List<Long> ids = new ArrayList<>();
+        Map<VoteTarget, Map<String, Long>> deltas = new EnumMap<>(VoteTarget.class);
+
+        jdbcTemplate.query("SELECT id, target_type, target_id, delta FROM vote_deltas WHERE created_at < ? " +
+                        "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    deltas.computeIfAbsent(VoteTarget.valueOf(rs.getString("target_type")), t -> new TreeMap<>())
+                            .merge(rs.getString("target_id"), rs.getLong("delta"), Long::sum);
+                },
+                cutoff, replayBatchSize);
+
+        deltas.forEach(this::applyDeltas);
+        deleteJournal(ids);
+        return ids.size();
+    }
+
+    private void applyDeltas(VoteTarget target, Map<String, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> {
+            if (delta != 0) {
+                args.add(new Object[]{delta, id});
+            }
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE " + target.getTable() + " SET vote_count = vote_count + ? WHERE id = ?", args);
+        }
+    }
+
+    private int deleteJournal(List<Long> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += 1000) {
+            deleted += voteDeltaRepository.deleteByIdIn(ids.subList(from, Math.min(ids.size(), from + 1000)));
+        }
+        return deleted;
+    }
+
+    private static Map<VoteTarget, VoteCounterBuffer> createBuffers() {
+        Map<VoteTarget, VoteCounterBuffer> map = new EnumMap<>(VoteTarget.class);
+        int concurrency = Runtime.getRuntime().availableProcessors() * 2;
+        for (VoteTarget target : VoteTarget.values()) {
+            map.put(target, new VoteCounterBuffer(concurrency));
+        }
+        return map;
+    }
+}
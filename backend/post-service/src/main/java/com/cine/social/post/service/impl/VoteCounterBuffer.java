@@ -0,0 +1,61 @@
+package com.cine.social.post.service.impl;
+
+import java.util.*;
+
+/**
+ * Striped in-memory accumulator of vote count deltas. Writers only contend with threads hashed to the same stripe.
+ */
+class VoteCounterBuffer {
+    private final Stripe[] stripes;
+    private final int mask;
+
+    VoteCounterBuffer(int concurrency) {
+        int size = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    void add(String targetId, int delta, long journalId) {
+        Stripe stripe = stripes[(int) (Thread.currentThread().getId() & mask)];
+        synchronized (stripe) {
+            stripe.deltas.merge(targetId, (long) delta, Long::sum);
+            stripe.journalIds.add(journalId);
+        }
+    }
+
+    Drained drain() {
+        Map<String, Long> deltas = new TreeMap<>();
+        List<Long> journalIds = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            Map<String, Long> stripeDeltas;
+            List<Long> stripeIds;
+            synchronized (stripe) {
+                if (stripe.journalIds.isEmpty()) {
+                    continue;
+                }
+                stripeDeltas = stripe.deltas;
+                stripeIds = stripe.journalIds;
+                stripe.deltas = new HashMap<>();
+                stripe.journalIds = new ArrayList<>();
+            }
+            stripeDeltas.forEach((id, delta) -> deltas.merge(id, delta, Long::sum));
+            journalIds.addAll(stripeIds);
+        }
+        // Sorted by target id so concurrent flushes lock rows in the same order
+        return new Drained(deltas, journalIds);
+    }
+
+    record Drained(Map<String, Long> deltas, List<Long> journalIds) {
+        boolean isEmpty() {
+            return journalIds.isEmpty();
+        }
+    }
+
+    private static final class Stripe {
+        private Map<String, Long> deltas = new HashMap<>();
+        private List<Long> journalIds = new ArrayList<>();
+    }
+}
@@ -0,0 +1,22 @@
+package com.cine.social.searchservice.constant;
+
+import com.cine.social.common.exception.ErrorCode;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+@Getter
+public enum SearchErrorCode implements ErrorCode {
+    REINDEX_IN_PROGRESS(8600, "A reindex is already running", HttpStatus.CONFLICT);
+
+
+    SearchErrorCode(int code, String message, HttpStatusCode statusCode) {
+        this.code = code;
+        this.message = message;
+        this.statusCode = statusCode;
+    }
+
+    private final int code;
+    private final String message;
+    private final HttpStatusCode statusCode;
+}
@@ -0,0 +1,27 @@
+package com.cine.social.searchservice.controller;
+
+import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.searchservice.dto.response.ReindexStatusResponse;
+import com.cine.social.searchservice.service.ReindexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/reindex")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyAuthority('ADMIN', 'ROLE_ADMIN')")
+public class ReindexController {
+
+    private final ReindexService reindexService;
+
+    @PostMapping
+    public ApiResponse<ReindexStatusResponse> startReindex() {
+        return ApiResponse.success(reindexService.startReindex());
+    }
+
+    @GetMapping
+    public ApiResponse<ReindexStatusResponse> getStatus() {
+        return ApiResponse.success(reindexService.getStatus());
+    }
+}
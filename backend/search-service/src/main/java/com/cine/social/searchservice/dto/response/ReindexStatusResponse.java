@@ -0,0 +1,23 @@
+package com.cine.social.searchservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexStatusResponse {
+    private boolean running;
+    private String phase;
+    private String targetIndex;
+    private long exported;
+    private long replayed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
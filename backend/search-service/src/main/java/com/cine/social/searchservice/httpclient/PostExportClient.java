@@ -0,0 +1,39 @@
+package com.cine.social.searchservice.httpclient;
+
+import com.cine.social.common.dto.response.ApiResponse;
+import com.cine.social.event.PostOutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Component
+public class PostExportClient {
+
+    private final RestClient restClient;
+
+    public PostExportClient(RestClient.Builder builder,
+                            @Value("${app.services.post-service.url}") String postServiceUrl,
+                            @Value("${app.security.internal-api-key}") String internalApiKey) {
+        this.restClient = builder
+                .baseUrl(postServiceUrl)
+                .defaultHeader("X-Internal-Client", internalApiKey)
+                .build();
+    }
+
+    public List<PostOutboxEvent> exportPosts(String afterId, String toId, int size) {
+        ApiResponse<List<PostOutboxEvent>> response = restClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/internal/posts/export")
+                        .queryParam("afterId", afterId)
+                        .queryParamIfPresent("toId", Optional.ofNullable(toId))
+                        .queryParam("size", size)
+                        .build())
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+        return Objects.nonNull(response) && Objects.nonNull(response.getData()) ? response.getData() : List.of();
+    }
+}
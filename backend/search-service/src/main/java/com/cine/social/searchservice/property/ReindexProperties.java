@@ -0,0 +1,26 @@
+package com.cine.social.searchservice.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.search.reindex")
+public class ReindexProperties {
+    private int slices = 4;
+    private int pageSize = 500;
+    private int maxDocsPerSecond = 2000;
+    // Kafka replay starts this long before the export began, re-applying events is idempotent
+    private Duration replayMargin = Duration.ofMinutes(1);
+    // Replicas re-read the reindex gate this often before each live batch
+    private Duration gateCheckInterval = Duration.ofSeconds(1);
+    // Extra wait after closing the gate for batches that passed the check just before it closed
+    private Duration gateSettle = Duration.ofSeconds(3);
+    // A gate left closed by a crashed reindex opens by itself after this
+    private Duration gateTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,145 @@
+package com.cine.social.searchservice.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.cine.social.event.PostOutboxEvent;
+import com.cine.social.searchservice.entity.PostDocument;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Turns post events into collapsed index/delete operations and writes them with a single _bulk request.
+ * A null document in the operations map means delete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostIndexWriter {
+
+    public final static String UPSERT_POST_TOPIC = "UPSERT_POST";
+    public final static String DELETE_POST_TOPIC = "DELETE_POST";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchConverter elasticsearchConverter;
+    private final ObjectMapper objectMapper;
+
+    public String getAliasName() {
+        return elasticsearchOperations.getIndexCoordinatesFor(PostDocument.class).getIndexName();
+    }
+
+    // Last write wins per post id, a delete anywhere in the batch sticks
+    public Map<String, PostDocument> collapse(List<ConsumerRecord<String, String>> records) {
+        Map<String, PostDocument> operations = new LinkedHashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                collapse(operations, record);
+            } catch (Exception e) {
+                log.error("Skipping malformed {} event at offset {}: {}", record.topic(), record.offset(), record.value(), e);
+            }
+        }
+        return operations;
+    }
+
+    public int bulk(String indexName, Map<String, PostDocument> operations) throws IOException {
+        if (operations.isEmpty()) {
+            return 0;
+        }
+
+        List<BulkOperation> bulkOperations = new ArrayList<>(operations.size());
+        operations.forEach((id, document) -> bulkOperations.add(Objects.isNull(document)
+                ? BulkOperation.of(b -> b.delete(d -> d.index(indexName).id(id)))
+                : BulkOperation.of(b -> b.index(i -> i.index(indexName).id(id)
+                        .document(elasticsearchConverter.mapObject(document))))));
+
+        BulkResponse response = elasticsearchClient.bulk(b -> b.operations(bulkOperations));
+        if (response.errors()) {
+            handleItemErrors(response.items());
+        }
+        return bulkOperations.size();
+    }
+
+    public PostDocument toPostDocument(PostOutboxEvent event){
+        PostDocument postDocument = PostDocument.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .content(event.getContent())
+                .resourceUrl(event.getResourceUrl())
+                .resourceType(event.getResourceType())
+                .authorId(event.getAuthorId())
+                .authorName(event.getAuthorName())
+                .authorAvatar(event.getAuthorAvatar())
+                .commentCount(event.getCommentCount())
+                .voteCount(event.getVoteCount())
+                .build();
+
+        if (StringUtils.hasText(event.getCreatedAt())) {
+            try {
+                postDocument.setCreatedAt(Date.from(LocalDateTime.parse(event.getCreatedAt()).toInstant(ZoneOffset.UTC)));
+            } catch (Exception e) {
+                log.error("Failed to parse createdAt for post {}: {}", event.getId(), event.getCreatedAt());
+            }
+        }
+        return postDocument;
+    }
+
+    private void collapse(Map<String, PostDocument> operations, ConsumerRecord<String, String> record) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(record.value());
+        JsonNode payloadNode = rootNode.has("payload") && rootNode.get("payload").isTextual()
+                ? objectMapper.readTree(rootNode.get("payload").asText())
+                : rootNode;
+
+        if (DELETE_POST_TOPIC.equals(record.topic())) {
+            String documentId = payloadNode.hasNonNull("id") ? payloadNode.get("id").asText() : record.key();
+            if (StringUtils.hasText(documentId)) {
+                operations.put(documentId, null);
+            }
+            return;
+        }
+
+        PostOutboxEvent event = objectMapper.treeToValue(payloadNode, PostOutboxEvent.class);
+        if (!StringUtils.hasText(event.getId())) {
+            return;
+        }
+        if (operations.containsKey(event.getId()) && Objects.isNull(operations.get(event.getId()))) {
+            return;
+        }
+        operations.put(event.getId(), toPostDocument(event));
+    }
+
+    private void handleItemErrors(List<BulkResponseItem> items) {
+        boolean retryable = false;
+        for (BulkResponseItem item : items) {
+            if (Objects.isNull(item.error())) {
+                continue;
+            }
+            log.error("Failed to sync post {} to Elastic: {}", item.id(), item.error().reason());
+            if (item.status() == 429 || item.status() >= 500) {
+                retryable = true;
+            }
+        }
+        if (retryable) {
+            // Let the caller retry the whole request, re-indexing the same documents is idempotent
+            throw new IllegalStateException("Elasticsearch rejected part of the bulk request");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cine.social.searchservice.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import com.cine.social.searchservice.property.ReindexProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cluster-wide hold on live post indexing while a reindex swaps the alias. The flag is a document in Elasticsearch,
+ * so every search-service replica sees it, not only the one running the reindex. Live batches that find the gate
+ * closed fail without committing and are redelivered from the committed offsets once it opens. The document carries
+ * an expiry, a reindex that dies with the gate closed cannot stall indexing for longer than that.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReindexGate {
+    private final static String GATE_ID = "gate";
+    private final static String CLOSED_UNTIL = "closedUntil";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final PostIndexWriter postIndexWriter;
+    private final ReindexProperties reindexProperties;
+
+    private volatile long closedUntil;
+    private volatile long checkedAt;
+
+    /**
+     * Whether live writes must hold off, re-read from Elasticsearch at most once per check interval.
+     */
+    public boolean isClosed() {
+        long now = System.currentTimeMillis();
+        if (now - checkedAt >= reindexProperties.getGateCheckInterval().toMillis()) {
+            closedUntil = readClosedUntil();
+            checkedAt = now;
+        }
+        return closedUntil > now;
+    }
+
+    public void close() throws IOException {
+        long until = System.currentTimeMillis() + reindexProperties.getGateTtl().toMillis();
+        elasticsearchClient.index(i -> i.index(stateIndex())
+                .id(GATE_ID)
+                .document(Map.of(CLOSED_UNTIL, until))
+                .refresh(Refresh.True));
+        log.info("Live post indexing held on every replica until the alias swap");
+    }
+
+    public void open() {
+        try {
+            elasticsearchClient.delete(d -> d.index(stateIndex()).id(GATE_ID).refresh(Refresh.True));
+        } catch (Exception e) {
+            log.warn("Failed to open the reindex gate, it expires on its own", e);
+        }
+    }
+
+    private long readClosedUntil() {
+        try {
+            GetResponse<Map> response = elasticsearchClient.get(g -> g.index(stateIndex()).id(GATE_ID), Map.class);
+            if (!response.found() || Objects.isNull(response.source())) {
+                return 0;
+            }
+            Object until = response.source().get(CLOSED_UNTIL);
+            return until instanceof Number number ? number.longValue() : 0;
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                return 0;
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the reindex gate", e);
+        }
+    }
+
+    private String stateIndex() {
+        return postIndexWriter.getAliasName() + "_reindex_state";
+    }
+}
@@ -0,0 +1,10 @@
+package com.cine.social.searchservice.service;
+
+import com.cine.social.searchservice.dto.response.ReindexStatusResponse;
+
+public interface ReindexService {
+
+    ReindexStatusResponse startReindex();
+
+    ReindexStatusResponse getStatus();
+}
@@ -0,0 +1,335 @@
+package com.cine.social.searchservice.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.cine.social.common.exception.AppException;
+import com.cine.social.event.PostOutboxEvent;
+import com.cine.social.searchservice.constant.SearchErrorCode;
+import com.cine.social.searchservice.dto.response.ReindexStatusResponse;
+import com.cine.social.searchservice.entity.PostDocument;
+import com.cine.social.searchservice.httpclient.PostExportClient;
+import com.cine.social.searchservice.property.ReindexProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the posts index into a fresh posts_vN index and swaps the posts alias onto it.
+ * Phases: export published posts from post-service in parallel id slices, replay Kafka events published since the
+ * export started, close the reindex gate so no replica writes live events, replay the remainder, then swap the alias
+ * atomically and open the gate. Live batches held by the gate are redelivered from committed offsets onto the new index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReindexServiceImpl implements ReindexService {
+
+    private final static String HEX = "0123456789abcdef";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final PostIndexWriter postIndexWriter;
+    private final PostExportClient postExportClient;
+    private final KafkaProperties kafkaProperties;
+    private final ReindexGate reindexGate;
+    private final ReindexProperties reindexProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "post-reindex"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    private volatile String phase = "IDLE";
+    private volatile String targetIndex;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.reindex.exported", exported, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("search.reindex.replayed", replayed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("search.reindex.running", running, value -> value.get() ? 1 : 0).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reindexExecutor.shutdownNow();
+    }
+
+    @Override
+    public ReindexStatusResponse startReindex() {
+        if (!running.compareAndSet(false, true)) {
+            throw new AppException(SearchErrorCode.REINDEX_IN_PROGRESS);
+        }
+        exported.set(0);
+        replayed.set(0);
+        error = null;
+        finishedAt = null;
+        startedAt = LocalDateTime.now();
+        phase = "STARTING";
+        reindexExecutor.execute(this::runReindex);
+        return getStatus();
+    }
+
+    @Override
+    public ReindexStatusResponse getStatus() {
+        return ReindexStatusResponse.builder()
+                .running(running.get())
+                .phase(phase)
+                .targetIndex(targetIndex)
+                .exported(exported.get())
+                .replayed(replayed.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+
+    private void runReindex() {
+        String alias = postIndexWriter.getAliasName();
+        String newIndex = null;
+        boolean gateClosed = false;
+        try {
+            newIndex = createVersionedIndex(alias);
+            targetIndex = newIndex;
+            Instant exportStartedAt = Instant.now().minus(reindexProperties.getReplayMargin());
+
+            phase = "EXPORTING";
+            exportAll(newIndex);
+
+            try (Consumer<String, String> consumer = createReplayConsumer()) {
+                List<TopicPartition> partitions = assignPostTopics(consumer);
+
+                phase = "REPLAYING";
+                Map<TopicPartition, Long> from = offsetsAt(consumer, partitions, exportStartedAt);
+                Map<TopicPartition, Long> caughtUp = consumer.endOffsets(partitions);
+                replay(consumer, newIndex, from, caughtUp);
+
+                // Nothing may reach the old index between the final replay and the swap, on any replica
+                phase = "SWAPPING";
+                reindexGate.close();
+                gateClosed = true;
+                awaitGateSeen();
+                replay(consumer, newIndex, caughtUp, consumer.endOffsets(partitions));
+            }
+
+            restoreRefresh(newIndex);
+            swapAlias(alias, newIndex);
+            phase = "COMPLETED";
+            log.info("Reindex into {} completed: {} exported, {} replayed", newIndex, exported.get(), replayed.get());
+        } catch (Exception e) {
+            phase = "FAILED";
+            error = e.getMessage();
+            log.error("Reindex into {} failed, alias {} left untouched", newIndex, alias, e);
+            if (Objects.nonNull(newIndex)) {
+                deleteQuietly(newIndex);
+            }
+        } finally {
+            if (gateClosed) {
+                reindexGate.open();
+            }
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private String createVersionedIndex(String alias) throws IOException {
+        int version = elasticsearchClient.indices()
+                .get(g -> g.index(alias + "_v*").allowNoIndices(true).ignoreUnavailable(true))
+                .result().keySet().stream()
+                .map(name -> name.substring(alias.length() + 2))
+                .filter(suffix -> suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .max()
+                .orElse(0) + 1;
+        String indexName = alias + "_v" + version;
+
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(PostDocument.class);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName))
+                .create(aliasOps.createSettings(PostDocument.class), aliasOps.createMapping(PostDocument.class));
+        // No refreshes while bulk loading, restored before the swap
+        elasticsearchClient.indices().putSettings(p -> p.index(indexName)
+                .settings(s -> s.refreshInterval(t -> t.time("-1"))));
+        log.info("Created index {} for reindex", indexName);
+        return indexName;
+    }
+
+    private void exportAll(String indexName) {
+        int slices = Math.max(1, Math.min(reindexProperties.getSlices(), HEX.length()));
+        ReindexThrottle throttle = new ReindexThrottle(reindexProperties.getMaxDocsPerSecond());
+        ExecutorService slicePool = Executors.newFixedThreadPool(slices, r -> new Thread(r, "post-reindex-slice"));
+        try {
+            // Post ids are UUIDs, so slicing on the first hex digit splits the key space evenly
+            List<CompletableFuture<Void>> futures = new ArrayList<>(slices);
+            for (int i = 0; i < slices; i++) {
+                String afterId = i == 0 ? "" : String.valueOf(HEX.charAt(i * HEX.length() / slices));
+                String toId = i == slices - 1 ? null : String.valueOf(HEX.charAt((i + 1) * HEX.length() / slices));
+                futures.add(CompletableFuture.runAsync(() -> exportSlice(indexName, afterId, toId, throttle), slicePool));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            slicePool.shutdownNow();
+        }
+    }
+
+    private void exportSlice(String indexName, String afterId, String toId, ReindexThrottle throttle) {
+        String cursor = afterId;
+        int pageSize = reindexProperties.getPageSize();
+        try {
+            while (true) {
+                List<PostOutboxEvent> page = postExportClient.exportPosts(cursor, toId, pageSize);
+                if (page.isEmpty()) {
+                    return;
+                }
+                throttle.acquire(page.size());
+
+                Map<String, PostDocument> operations = new LinkedHashMap<>();
+                page.forEach(event -> operations.put(event.getId(), postIndexWriter.toPostDocument(event)));
+                postIndexWriter.bulk(indexName, operations);
+                exported.addAndGet(page.size());
+
+                if (page.size() < pageSize) {
+                    return;
+                }
+                cursor = page.get(page.size() - 1).getId();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reindex slice interrupted", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Bulk request failed for slice starting at " + afterId, e);
+        }
+    }
+
+    private Consumer<String, String> createReplayConsumer() {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "search-service-reindex-" + UUID.randomUUID());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        return new KafkaConsumer<>(props);
+    }
+
+    private List<TopicPartition> assignPostTopics(Consumer<String, String> consumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : List.of(PostIndexWriter.UPSERT_POST_TOPIC, PostIndexWriter.DELETE_POST_TOPIC)) {
+            List<PartitionInfo> infos = consumer.partitionsFor(topic);
+            if (Objects.nonNull(infos)) {
+                infos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+            }
+        }
+        consumer.assign(partitions);
+        return partitions;
+    }
+
+    private Map<TopicPartition, Long> offsetsAt(Consumer<String, String> consumer, List<TopicPartition> partitions, Instant timestamp) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, timestamp.toEpochMilli()));
+        Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(query);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        partitions.forEach(partition -> {
+            OffsetAndTimestamp offset = found.get(partition);
+            offsets.put(partition, Objects.nonNull(offset) ? offset.offset() : endOffsets.get(partition));
+        });
+        return offsets;
+    }
+
+    private void replay(Consumer<String, String> consumer, String indexName,
+                        Map<TopicPartition, Long> from, Map<TopicPartition, Long> until) throws IOException {
+        from.forEach(consumer::seek);
+        while (true) {
+            List<TopicPartition> pending = until.keySet().stream()
+                    .filter(partition -> consumer.position(partition) < until.get(partition))
+                    .toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            ConsumerRecords<String, String> records = consumer.poll(Duration.ofSeconds(1));
+            List<ConsumerRecord<String, String>> batch = new ArrayList<>(records.count());
+            for (ConsumerRecord<String, String> record : records) {
+                if (record.offset() < until.get(new TopicPartition(record.topic(), record.partition()))) {
+                    batch.add(record);
+                }
+            }
+            if (!batch.isEmpty()) {
+                postIndexWriter.bulk(indexName, postIndexWriter.collapse(batch));
+                replayed.addAndGet(batch.size());
+            }
+        }
+    }
+
+    // Replicas re-read the gate once per check interval, a batch that passed the check just before may still be writing
+    private void awaitGateSeen() throws InterruptedException {
+        Thread.sleep(reindexProperties.getGateCheckInterval().toMillis() + reindexProperties.getGateSettle().toMillis());
+    }
+
+    private void restoreRefresh(String indexName) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p.index(indexName)
+                .settings(s -> s.refreshInterval(t -> t.time("1s"))));
+        elasticsearchClient.indices().refresh(r -> r.index(indexName));
+    }
+
+    private void swapAlias(String alias, String newIndex) throws IOException {
+        List<Action> actions = new ArrayList<>();
+        boolean isAlias = elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value();
+        if (isAlias) {
+            Set<String> current = elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet();
+            current.forEach(index -> actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(alias)))));
+        } else if (elasticsearchClient.indices().exists(e -> e.index(alias)).value()) {
+            // Legacy concrete index created from @Document, replaced by the alias in the same request
+            actions.add(Action.of(a -> a.removeIndex(r -> r.index(alias))));
+        }
+        actions.add(Action.of(a -> a.add(ad -> ad.index(newIndex).alias(alias).isWriteIndex(true))));
+
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        log.info("Alias {} now points to {}", alias, newIndex);
+    }
+
+    private void deleteQuietly(String indexName) {
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(indexName));
+        } catch (Exception e) {
+            log.warn("Failed to delete partial index {}", indexName, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.cine.social.searchservice.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared documents-per-second budget for all reindex slices, so a rebuild cannot saturate the cluster.
+ */
+class ReindexThrottle {
+    private final double nanosPerDoc;
+    private long nextFreeNanos = System.nanoTime();
+
+    ReindexThrottle(int maxDocsPerSecond) {
+        this.nanosPerDoc = maxDocsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / (double) maxDocsPerSecond : 0;
+    }
+
+    void acquire(int docs) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            waitNanos = nextFreeNanos - now;
+            nextFreeNanos = Math.max(now, nextFreeNanos) + (long) (docs * nanosPerDoc);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -88,6 +88,7 @@ public class SearchServiceImpl implements SearchService {
                 .pageSize(pageable.getPageSize())
                 .totalPage((int) Math.ceil((double) searchHits.getTotalHits() / pageable.getPageSize()))
                 .totalElement(searchHits.getTotalHits())
+                .hasNext(pageable.getOffset() + pageable.getPageSize() < searchHits.getTotalHits())
                 .items(posts)
                 .build();
     }